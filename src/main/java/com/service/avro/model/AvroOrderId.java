@@ -0,0 +1,44 @@
+/**
+ * Autogenerated by Avro
+ *
+ * DO NOT EDIT DIRECTLY
+ */
+package com.service.avro.model;
+@org.apache.avro.specific.FixedSize(16)
+@org.apache.avro.specific.AvroGenerated
+public class AvroOrderId extends org.apache.avro.specific.SpecificFixed {
+  private static final long serialVersionUID = 4129827359072657877L;
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"fixed\",\"name\":\"AvroOrderId\",\"namespace\":\"com.service.avro.model\",\"size\":16}");
+  public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
+  public org.apache.avro.Schema getSchema() { return SCHEMA$; }
+
+  /** Creates a new AvroOrderId */
+  public AvroOrderId() {
+    super();
+  }
+
+  /**
+   * Creates a new AvroOrderId with the given bytes.
+   * @param bytes The bytes to create the new AvroOrderId.
+   */
+  public AvroOrderId(byte[] bytes) {
+    super(bytes);
+  }
+
+  private static final org.apache.avro.io.DatumWriter<AvroOrderId>
+    WRITER$ = new org.apache.avro.specific.SpecificDatumWriter<AvroOrderId>(SCHEMA$);
+
+  @Override public void writeExternal(java.io.ObjectOutput out)
+    throws java.io.IOException {
+    WRITER$.write(this, org.apache.avro.specific.SpecificData.getEncoder(out));
+  }
+
+  private static final org.apache.avro.io.DatumReader<AvroOrderId>
+    READER$ = new org.apache.avro.specific.SpecificDatumReader<AvroOrderId>(SCHEMA$);
+
+  @Override public void readExternal(java.io.ObjectInput in)
+    throws java.io.IOException {
+    READER$.read(this, org.apache.avro.specific.SpecificData.getDecoder(in));
+  }
+
+}
@@ -0,0 +1,82 @@
+package com.service.payment.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, short-lived cache of customer ids that were looked up and not found. A miss is only recorded when no
+ * customer was created since the lookup started, and creation invalidates the id again after commit, so a lookup that
+ * raced with the insert cannot hide a new customer. Customers created by another instance stay hidden for at most
+ * the TTL.
+ */
+@Component
+public class MissingCustomerCache {
+
+    private final boolean enabled;
+
+    private final Cache<Long, Boolean> missing;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public MissingCustomerCache(@Value("${payment.customer.missing-cache.enabled:true}") boolean enabled,
+                                @Value("${payment.customer.missing-cache.max-size:10000}") long maxSize,
+                                @Value("${payment.customer.missing-cache.ttl-ms:5000}") long ttlMs) {
+        this(enabled, maxSize, ttlMs, Ticker.systemTicker());
+    }
+
+    MissingCustomerCache(boolean enabled, long maxSize, long ttlMs, Ticker ticker) {
+        this.enabled = enabled;
+        this.missing = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(Duration.ofMillis(ttlMs))
+                .ticker(ticker).build();
+    }
+
+    /**
+     * Taken before the lookup and handed to {@link #recordMiss(Long, long)}.
+     */
+    public long token() {
+        return invalidations.get();
+    }
+
+    public boolean isKnownMissing(@NonNull Long id) {
+        return enabled && missing.getIfPresent(id) != null;
+    }
+
+    public void recordMiss(@NonNull Long id, long token) {
+        if (!enabled) {
+            return;
+        }
+        missing.put(id, Boolean.TRUE);
+        if (invalidations.get() != token) {
+            missing.invalidate(id);
+        }
+    }
+
+    public void invalidate(@NonNull Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id) {
+        invalidations.incrementAndGet();
+        missing.invalidate(id);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.service.payment.config;
+
+import com.service.payment.dao.DataAccessFailures;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration
+public class DaoRetryConfig {
+
+    @Bean
+    public RetryTemplate daoRetryTemplate(@Value("${payment.db.retry.max-attempts:4}") int maxAttempts,
+                                          @Value("${payment.db.retry.initial-interval-ms:100}") long initialInterval,
+                                          @Value("${payment.db.retry.multiplier:2.0}") double multiplier,
+                                          @Value("${payment.db.retry.max-interval-ms:2000}") long maxInterval) {
+        return RetryTemplate.builder().maxAttempts(maxAttempts)
+                .exponentialBackoff(initialInterval, multiplier, maxInterval)
+                .retryOn(DataAccessFailures.TRANSIENT_TYPES).traversingCauses().build();
+    }
+}
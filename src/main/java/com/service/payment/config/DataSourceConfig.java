@@ -0,0 +1,40 @@
+package com.service.payment.config;
+
+import com.service.payment.dao.DatabaseLane;
+import com.service.payment.dao.LaneRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * One Hikari pool per {@link DatabaseLane}. Both pools take the regular {@code spring.datasource.*} and
+ * {@code spring.datasource.hikari.*} settings, only the pool size is set per lane.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public LaneRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                            @Value("${payment.db.bulkhead.orders.pool-size:8}") int ordersPoolSize,
+                                            @Value("${payment.db.bulkhead.api.pool-size:4}") int apiPoolSize) {
+        return new LaneRoutingDataSource(
+                Map.of(DatabaseLane.ORDERS, pool(properties, environment, DatabaseLane.ORDERS, ordersPoolSize),
+                        DatabaseLane.API, pool(properties, environment, DatabaseLane.API, apiPoolSize)));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, DatabaseLane lane,
+                                         int poolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("payment-" + lane.name().toLowerCase());
+        dataSource.setMaximumPoolSize(poolSize);
+        return dataSource;
+    }
+}
@@ -0,0 +1,46 @@
+package com.service.payment.config;
+
+import com.service.payment.consumer.FailedOrderRecordRecoverer;
+import com.service.payment.consumer.OrderStatusRecordFilterStrategy;
+import com.service.payment.dao.DataAccessFailures;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            OrderStatusRecordFilterStrategy orderStatusRecordFilterStrategy) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setRecordFilterStrategy(orderStatusRecordFilterStrategy);
+        return factory;
+    }
+
+    /**
+     * Records that failed on a transient database error are redelivered with exponential backoff until the database
+     * recovers. Other failures keep the default backoff and are then given up on by the
+     * {@link FailedOrderRecordRecoverer}.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(
+            @Value("${payment.db.retry.redelivery-initial-interval-ms:1000}") long initialInterval,
+            @Value("${payment.db.retry.redelivery-max-interval-ms:30000}") long maxInterval,
+            FailedOrderRecordRecoverer failedOrderRecordRecoverer) {
+        ExponentialBackOff transientBackOff = new ExponentialBackOff(initialInterval, 2.0);
+        transientBackOff.setMaxInterval(maxInterval);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(failedOrderRecordRecoverer);
+        errorHandler.setBackOffFunction((record, e) -> DataAccessFailures.isTransient(e) ? transientBackOff : null);
+        return errorHandler;
+    }
+}
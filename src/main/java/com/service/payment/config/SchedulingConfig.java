@@ -0,0 +1,12 @@
+package com.service.payment.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the {@code @Scheduled} controllers and the audit journal flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,19 @@
+package com.service.payment.config;
+
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaRegistryConfig {
+
+    private static final int SCHEMA_CACHE_CAPACITY = 100;
+
+    @Bean
+    public SchemaRegistryClient schemaRegistryClient(
+            @Value("${spring.kafka.producer.properties.schema.registry.url}") String schemaRegistryUrl) {
+        return new CachedSchemaRegistryClient(schemaRegistryUrl, SCHEMA_CACHE_CAPACITY);
+    }
+}
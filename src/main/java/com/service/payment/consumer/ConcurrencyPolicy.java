@@ -0,0 +1,47 @@
+package com.service.payment.consumer;
+
+/**
+ * Sizes the listener concurrency from the time the current backlog would take to drain. Scales one step at a time:
+ * up when the backlog would outlast the drain target, down only when one consumer less would still drain it in half
+ * the target.
+ */
+public class ConcurrencyPolicy {
+
+    private final int minConcurrency;
+
+    private final long targetDrainMs;
+
+    public ConcurrencyPolicy(int minConcurrency, long targetDrainMs) {
+        if (minConcurrency < 1 || targetDrainMs <= 0) {
+            throw new IllegalArgumentException("Invalid concurrency bounds");
+        }
+        this.minConcurrency = minConcurrency;
+        this.targetDrainMs = targetDrainMs;
+    }
+
+    /**
+     * @param maxConcurrency upper bound, already capped by the assigned partitions
+     * @param lag            records behind across all assigned partitions
+     * @param processingMs   average listener time per record, {@code 0} when nothing was processed in the interval
+     */
+    public int next(int current, int maxConcurrency, long lag, double processingMs) {
+        int max = Math.max(minConcurrency, maxConcurrency);
+        if (current > max) {
+            return max;
+        }
+        if (lag > 0 && processingMs <= 0) {
+            return Math.max(current, minConcurrency);
+        }
+        if (current < max && drainMs(lag, processingMs, current) > targetDrainMs) {
+            return current + 1;
+        }
+        if (current > minConcurrency && drainMs(lag, processingMs, current - 1) < targetDrainMs / 2.0) {
+            return current - 1;
+        }
+        return current;
+    }
+
+    private static double drainMs(long lag, double processingMs, int concurrency) {
+        return lag * processingMs / concurrency;
+    }
+}
@@ -0,0 +1,101 @@
+package com.service.payment.consumer;
+
+import com.service.payment.dao.DatabaseCircuitBreaker;
+import com.service.payment.dao.DatabaseLane;
+import com.service.payment.dao.DatabaseLoad;
+import com.service.payment.dao.DatabaseLoadMonitor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pauses the {@code orders} listener while the database is saturated or the circuit breaker is open, so orders wait in
+ * Kafka instead of failing against an overloaded pool. Only the latency of the {@link DatabaseLane#ORDERS} lane is
+ * considered, slow API queries run in their own lane and do not hold back orders. Partitions are resumed after the
+ * load stays below the recovery threshold for several consecutive samples; once the open period has elapsed the
+ * resumed consumer makes the probe.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DatabaseBackpressureController {
+
+    public static final String PAUSED_METRIC = "payment.orders.listener.backpressure.paused";
+
+    private final KafkaListenerEndpointRegistry registry;
+
+    private final DatabaseLoadMonitor loadMonitor;
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.db.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.db.backpressure.latency-threshold-ms:500}")
+    private double latencyThresholdMs;
+
+    @Value("${payment.db.backpressure.recovery-latency-ms:200}")
+    private double recoveryLatencyMs;
+
+    @Value("${payment.db.backpressure.recovery-intervals:3}")
+    private int recoveryIntervals;
+
+    @Getter
+    private volatile boolean paused;
+
+    private int healthyIntervals;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder(PAUSED_METRIC, this, controller -> controller.paused ? 1 : 0)
+                .description("1 while the orders listener is paused by database backpressure")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.db.backpressure.interval-ms:1000}",
+            initialDelayString = "${payment.db.backpressure.interval-ms:1000}")
+    public synchronized void check() {
+        DatabaseLoad load = loadMonitor.sample(DatabaseLane.ORDERS);
+        MessageListenerContainer container = registry.getListenerContainer(ListenerConcurrencyController.LISTENER_ID);
+        if (!enabled || container == null || !container.isRunning()) {
+            return;
+        }
+        if (!paused) {
+            if (overloaded(load)) {
+                container.pause();
+                paused = true;
+                healthyIntervals = 0;
+                log.warn("Paused listener '{}' due to database load: {}", ListenerConcurrencyController.LISTENER_ID,
+                        load);
+            }
+            return;
+        }
+        healthyIntervals = recovered(load) ? healthyIntervals + 1 : 0;
+        if (healthyIntervals >= recoveryIntervals) {
+            container.resume();
+            paused = false;
+            log.info("Resumed listener '{}', database load recovered: {}", ListenerConcurrencyController.LISTENER_ID,
+                    load);
+        }
+    }
+
+    private boolean overloaded(DatabaseLoad load) {
+        return circuitBreaker.isRejectingCalls() || load.poolSaturated()
+                || (load.calls() > 0 && load.averageLatencyMs() > latencyThresholdMs);
+    }
+
+    private boolean recovered(DatabaseLoad load) {
+        return !circuitBreaker.isRejectingCalls() && !load.poolSaturated()
+                && load.averageLatencyMs() < recoveryLatencyMs;
+    }
+}
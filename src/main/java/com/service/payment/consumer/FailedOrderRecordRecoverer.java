@@ -0,0 +1,46 @@
+package com.service.payment.consumer;
+
+import com.service.payment.exception.OrderRecordFailedException;
+import com.service.payment.service.OrderProcessingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives up on an order record once the error handler has run out of retries. A reordered batch reports its failure
+ * against the earliest record not yet handled, which need not be the one that failed; the failed record is then named
+ * by an {@link OrderRecordFailedException}. In that case the failed record is skipped on redelivery and the recovery
+ * itself fails, so the error handler redelivers the reported record instead of skipping it unprocessed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FailedOrderRecordRecoverer implements ConsumerRecordRecoverer {
+
+    private final OrderProcessingService orderProcessingService;
+
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+        ConsumerRecord<?, ?> failedRecord = OrderRecordFailedException.failedRecordOf(exception);
+        if (failedRecord == null || isSameRecord(failedRecord, record)) {
+            log.error("Gave up on order record {}", position(record), exception);
+            return;
+        }
+        orderProcessingService.skipOnRedelivery(failedRecord);
+        log.error("Gave up on order record {}, redelivering from {}", position(failedRecord), position(record),
+                exception);
+        throw new KafkaException("Order record " + position(record) + " did not fail, redelivering it");
+    }
+
+    private static boolean isSameRecord(ConsumerRecord<?, ?> first, ConsumerRecord<?, ?> second) {
+        return first.topic().equals(second.topic()) && first.partition() == second.partition() &&
+                first.offset() == second.offset();
+    }
+
+    private static String position(ConsumerRecord<?, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+}
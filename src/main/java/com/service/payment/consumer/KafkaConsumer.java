@@ -1,25 +1,78 @@
 package com.service.payment.consumer;
 
 import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderV2;
+import com.service.payment.converter.AvroOrderV2ToAvroOrderConverter;
+import com.service.payment.dao.DatabaseLane;
+import com.service.payment.logging.LogSampler;
+import com.service.payment.serialization.OrderHeaders;
 import com.service.payment.service.OrderProcessingService;
+import com.service.payment.service.OrderRecord;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 @EnableKafka
 public class KafkaConsumer {
 
+    public static final String RECORDS_METRIC = "payment.orders.listener.records";
+
     private final OrderProcessingService orderProcessingService;
 
-    @KafkaListener(id = "orders", topics = "orders", groupId = "payment")
-    public void onOrderReceive(AvroOrder avroOrder) {
-        log.info("Received from Kafka: {}", avroOrder);
-        orderProcessingService.process(avroOrder);
+    private final AvroOrderV2ToAvroOrderConverter avroOrderV2Converter;
+
+    private final LogSampler logSampler;
+
+    private final MeterRegistry meterRegistry;
+
+    @KafkaListener(id = "orders", topics = "orders", groupId = "payment", batch = "true")
+    public void onOrdersReceive(List<ConsumerRecord<String, SpecificRecord>> records) {
+        meterRegistry.counter(RECORDS_METRIC).increment(records.size());
+        DatabaseLane.ORDERS.run(() -> {
+            List<OrderRecord> orders = new ArrayList<>(records.size());
+            for (ConsumerRecord<String, SpecificRecord> record : records) {
+                AvroOrder avroOrder = toAvroOrder(record.value());
+                if (avroOrder == null) {
+                    log.warn("Unsupported order record type: {}", record.value().getClass().getName());
+                    continue;
+                }
+                if (logSampler.sample(LogSampler.ORDER_RECEIVED)) {
+                    log.atInfo().addKeyValue("orderId", avroOrder.getId())
+                            .addKeyValue("customerId", avroOrder.getCustomerId())
+                            .addKeyValue("status", avroOrder.getStatus())
+                            .log("Received from Kafka");
+                }
+                orders.add(new OrderRecord(avroOrder, rawValue(record), record));
+            }
+            orderProcessingService.process(orders);
+        });
+    }
+
+    private AvroOrder toAvroOrder(SpecificRecord order) {
+        if (order instanceof AvroOrder avroOrder) {
+            return avroOrder;
+        }
+        if (order instanceof AvroOrderV2 avroOrderV2) {
+            return avroOrderV2Converter.convert(avroOrderV2);
+        }
+        return null;
+    }
+
+    private static byte[] rawValue(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(OrderHeaders.RAW_VALUE);
+        return header == null ? null : header.value();
     }
 
 }
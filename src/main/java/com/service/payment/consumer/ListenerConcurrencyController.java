@@ -0,0 +1,164 @@
+package com.service.payment.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Scales the concurrency of the {@code orders} listener container from consumer lag and listener processing time.
+ * Concurrency never exceeds the partitions assigned to the container. A change restarts the container, so it is
+ * applied only after the policy proposed it for several consecutive intervals. Nothing is changed while the container
+ * is paused, since lag then grows regardless of concurrency.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ListenerConcurrencyController {
+
+    public static final String LISTENER_ID = "orders";
+
+    public static final String CONCURRENCY_METRIC = "payment.orders.listener.concurrency";
+
+    public static final String CONCURRENCY_CHANGES_METRIC = "payment.orders.listener.concurrency.changes";
+
+    private static final String LISTENER_TIMER = "spring.kafka.listener";
+
+    private static final Pattern LISTENER_TIMER_NAME = Pattern.compile(LISTENER_ID + "-\\d+");
+
+    private static final String FETCH_METRIC_GROUP = "consumer-fetch-manager-metrics";
+
+    private static final String RECORDS_LAG_METRIC = "records-lag";
+
+    private final KafkaListenerEndpointRegistry registry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger concurrency = new AtomicInteger();
+
+    @Value("${kafka.orders.concurrency.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kafka.orders.concurrency.min:1}")
+    private int minConcurrency;
+
+    @Value("${kafka.orders.concurrency.max:8}")
+    private int maxConcurrency;
+
+    @Value("${kafka.orders.concurrency.target-drain-ms:30000}")
+    private long targetDrainMs;
+
+    @Value("${kafka.orders.concurrency.stable-intervals:3}")
+    private int stableIntervals;
+
+    private ConcurrencyPolicy policy;
+
+    private Integer pending;
+
+    private int pendingIntervals;
+
+    private double lastRecords;
+
+    private double lastTimerTotalMs;
+
+    @PostConstruct
+    void init() {
+        policy = new ConcurrencyPolicy(minConcurrency, targetDrainMs);
+        Gauge.builder(CONCURRENCY_METRIC, concurrency, AtomicInteger::get)
+                .description("Consumers running in the orders listener container")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.orders.concurrency.interval-ms:15000}",
+            initialDelayString = "${kafka.orders.concurrency.interval-ms:15000}")
+    public synchronized void adjust() {
+        if (!(registry.getListenerContainer(LISTENER_ID) instanceof ConcurrentMessageListenerContainer<?, ?> container)
+                || !container.isRunning() || container.isPauseRequested()) {
+            return;
+        }
+        int current = container.getConcurrency();
+        concurrency.set(current);
+        double processingMs = processingMs();
+        if (!enabled) {
+            return;
+        }
+        Collection<TopicPartition> assignedPartitions = container.getAssignedPartitions();
+        if (assignedPartitions == null || assignedPartitions.isEmpty()) {
+            return;
+        }
+        long lag = lag(container.metrics());
+        int next = policy.next(current, Math.min(maxConcurrency, assignedPartitions.size()), lag, processingMs);
+        if (next == current) {
+            pending = null;
+            pendingIntervals = 0;
+            return;
+        }
+        if (pending == null || pending != next) {
+            pending = next;
+            pendingIntervals = 0;
+        }
+        if (++pendingIntervals < stableIntervals) {
+            return;
+        }
+        log.info("Listener '{}' concurrency changed from {} to {} (lag = {}, processing = {} ms, partitions = {})",
+                LISTENER_ID, current, next, lag, processingMs, assignedPartitions.size());
+        container.stop();
+        container.setConcurrency(next);
+        container.start();
+        concurrency.set(next);
+        meterRegistry.counter(CONCURRENCY_CHANGES_METRIC, "direction", next > current ? "up" : "down").increment();
+        pending = null;
+        pendingIntervals = 0;
+    }
+
+    /**
+     * The listener timer measures whole batches, so the time is divided by the records the listener received.
+     */
+    private double processingMs() {
+        double totalMs = 0;
+        for (Timer timer : meterRegistry.find(LISTENER_TIMER).timers()) {
+            String name = timer.getId().getTag("name");
+            if (name != null && LISTENER_TIMER_NAME.matcher(name).matches()) {
+                totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+        }
+        double records = meterRegistry.counter(KafkaConsumer.RECORDS_METRIC).count();
+        double processed = records - lastRecords;
+        double elapsedMs = totalMs - lastTimerTotalMs;
+        lastRecords = records;
+        lastTimerTotalMs = totalMs;
+        return processed > 0 && elapsedMs >= 0 ? elapsedMs / processed : 0;
+    }
+
+    private static long lag(Map<String, Map<MetricName, ? extends Metric>> metrics) {
+        long lag = 0;
+        for (Map<MetricName, ? extends Metric> clientMetrics : metrics.values()) {
+            for (Map.Entry<MetricName, ? extends Metric> entry : clientMetrics.entrySet()) {
+                MetricName metricName = entry.getKey();
+                if (RECORDS_LAG_METRIC.equals(metricName.name()) && FETCH_METRIC_GROUP.equals(metricName.group())
+                        && metricName.tags().containsKey("partition")
+                        && entry.getValue().metricValue() instanceof Number value
+                        && Double.isFinite(value.doubleValue())) {
+                    lag += value.longValue();
+                }
+            }
+        }
+        return lag;
+    }
+}
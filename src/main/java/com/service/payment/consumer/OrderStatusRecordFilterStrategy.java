@@ -0,0 +1,42 @@
+package com.service.payment.consumer;
+
+import com.service.payment.serialization.OrderHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Discards records the listener cannot handle. Records whose status header marks them unprocessable are dropped
+ * silently, whether or not the projection deserializer skipped their value. Any other record without a value is either
+ * a tombstone or one the {@code ErrorHandlingDeserializer} failed to decode; both are logged and counted under
+ * {@link #DISCARDED_METRIC} so undecodable orders do not disappear silently.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OrderStatusRecordFilterStrategy implements RecordFilterStrategy<Object, Object> {
+
+    public static final String DISCARDED_METRIC = "payment.orders.listener.discarded";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean filter(ConsumerRecord<Object, Object> consumerRecord) {
+        if (OrderHeaders.hasUnprocessableStatus(consumerRecord.headers())) {
+            return true;
+        }
+        if (consumerRecord.value() == null) {
+            boolean undecodable =
+                    consumerRecord.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null;
+            meterRegistry.counter(DISCARDED_METRIC, "reason", undecodable ? "undecodable" : "tombstone").increment();
+            log.warn("Discarded {} record at {}-{}@{}", undecodable ? "undecodable" : "tombstone",
+                    consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset());
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,24 +1,36 @@
 package com.service.payment.converter;
 
 import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroProduct;
 import com.service.payment.model.Order;
+import com.service.payment.model.OrderStatus;
+import com.service.payment.model.Product;
 import lombok.NonNull;
-import org.modelmapper.ModelMapper;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Component
 public class AvroOrderToOrderConverter implements Converter<AvroOrder, Order> {
 
-    private final ModelMapper modelMapper;
-
-    public AvroOrderToOrderConverter() {
-        this.modelMapper = new ModelMapper();
-    }
-
     @Override
     @NonNull
     public Order convert(@NonNull AvroOrder source) {
-        return modelMapper.map(source, Order.class);
+        Order order = new Order();
+        order.setId(source.getId() == null ? null : UUID.fromString(source.getId().toString()));
+        order.setCustomerId(source.getCustomerId());
+        order.setProduct(source.getProduct() == null ? null : convertProduct(source.getProduct()));
+        order.setStatus(source.getStatus() == null ? null : OrderStatus.valueOf(source.getStatus().name()));
+        order.setSource(source.getSource() == null ? null : source.getSource().toString());
+        return order;
+    }
+
+    private Product convertProduct(AvroProduct avroProduct) {
+        Product product = new Product();
+        product.setId(avroProduct.getId());
+        product.setQuantity(avroProduct.getQuantity());
+        product.setPrice(avroProduct.getPrice());
+        return product;
     }
 }
@@ -0,0 +1,24 @@
+package com.service.payment.converter;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderV2;
+import com.service.payment.utils.OrderIdUtils;
+import lombok.NonNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AvroOrderV2ToAvroOrderConverter implements Converter<AvroOrderV2, AvroOrder> {
+
+    @Override
+    @NonNull
+    public AvroOrder convert(@NonNull AvroOrderV2 source) {
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId(source.getId() == null ? null : OrderIdUtils.toUuid(source.getId()).toString());
+        avroOrder.setCustomerId(source.getCustomerId());
+        avroOrder.setProduct(source.getProduct());
+        avroOrder.setStatus(source.getStatus());
+        avroOrder.setSource(source.getSource());
+        return avroOrder;
+    }
+}
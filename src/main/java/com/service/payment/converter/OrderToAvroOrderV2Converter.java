@@ -0,0 +1,24 @@
+package com.service.payment.converter;
+
+import com.service.avro.model.AvroOrderStatus;
+import com.service.avro.model.AvroOrderV2;
+import com.service.avro.model.AvroProduct;
+import com.service.payment.model.Order;
+import com.service.payment.model.Product;
+import com.service.payment.utils.OrderIdUtils;
+import lombok.NonNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderToAvroOrderV2Converter implements Converter<Order, AvroOrderV2> {
+
+    @Override
+    @NonNull
+    public AvroOrderV2 convert(@NonNull Order source) {
+        Product product = source.getProduct();
+        return new AvroOrderV2(OrderIdUtils.toAvroOrderId(source.getId()), source.getCustomerId(),
+                new AvroProduct(product.getId(), product.getQuantity(), product.getPrice()),
+                AvroOrderStatus.valueOf(source.getStatus().name()), source.getSource());
+    }
+}
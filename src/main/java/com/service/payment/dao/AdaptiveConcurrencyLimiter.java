@@ -0,0 +1,227 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.TransientServiceException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient concurrency limit for DAO calls, kept separately for every {@link DatabaseLane} and capped by the lane's
+ * pool size. The limit follows the ratio between the long-term and the recent average latency: while recent latency
+ * stays at the long-term level it grows by a queue allowance of {@code sqrt(limit)}, once latency rises above it the
+ * limit shrinks proportionally. Growth only happens while callers actually use at least half of the limit. With
+ * adaptation disabled every lane is limited to its pool size.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimiter {
+
+    public static final String LIMIT_METRIC = "payment.db.concurrency.limit";
+
+    public static final String IN_FLIGHT_METRIC = "payment.db.concurrency.in-flight";
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private static final double LONG_RTT_SMOOTHING = 0.05;
+
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<DatabaseLane, Lane> lanes = new EnumMap<>(DatabaseLane.class);
+
+    @Value("${payment.db.concurrency.adaptive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.db.concurrency.initial-limit:10}")
+    private int initialLimit;
+
+    @Value("${payment.db.concurrency.min-limit:2}")
+    private int minLimit;
+
+    @Value("${payment.db.bulkhead.orders.pool-size:8}")
+    private int ordersMaxLimit;
+
+    @Value("${payment.db.bulkhead.api.pool-size:4}")
+    private int apiMaxLimit;
+
+    @Value("${payment.db.concurrency.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${payment.db.concurrency.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${payment.db.concurrency.window-size:10}")
+    private int windowSize;
+
+    @Value("${payment.db.concurrency.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    @PostConstruct
+    void init() {
+        lanes.put(DatabaseLane.ORDERS, new Lane(DatabaseLane.ORDERS, ordersMaxLimit));
+        lanes.put(DatabaseLane.API, new Lane(DatabaseLane.API, apiMaxLimit));
+    }
+
+    /**
+     * @throws TransientServiceException when no permit of the lane frees up within the acquire timeout
+     */
+    public void acquire(DatabaseLane lane) {
+        lanes.get(lane).acquire();
+    }
+
+    /**
+     * @param rttNanos duration of the call
+     * @param dropped  {@code true} when the call failed on a transient error, which shrinks the limit right away
+     */
+    public void release(DatabaseLane lane, long rttNanos, boolean dropped) {
+        lanes.get(lane).release(rttNanos, dropped);
+    }
+
+    public double getLimit(DatabaseLane lane) {
+        return lanes.get(lane).getLimit();
+    }
+
+    public int getInFlight(DatabaseLane lane) {
+        return lanes.get(lane).getInFlight();
+    }
+
+    private class Lane {
+
+        private final DatabaseLane name;
+
+        private final int minLimit;
+
+        private final int maxLimit;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition permitReleased = lock.newCondition();
+
+        private double limit;
+
+        private int inFlight;
+
+        private double longRttNanos;
+
+        private long windowRttNanos;
+
+        private int windowSamples;
+
+        private int windowMaxInFlight;
+
+        private Lane(DatabaseLane name, int maxLimit) {
+            if (maxLimit < 1) {
+                throw new IllegalArgumentException("Invalid concurrency limit of lane " + name);
+            }
+            this.name = name;
+            this.maxLimit = maxLimit;
+            this.minLimit = Math.min(AdaptiveConcurrencyLimiter.this.minLimit, maxLimit);
+            this.limit = enabled ? Math.max(minLimit, Math.min(maxLimit, initialLimit)) : maxLimit;
+            String lane = name.name().toLowerCase();
+            Gauge.builder(LIMIT_METRIC, this, Lane::getLimit).tag("lane", lane)
+                    .description("Adaptive limit of concurrent DAO calls")
+                    .register(meterRegistry);
+            Gauge.builder(IN_FLIGHT_METRIC, this, Lane::getInFlight).tag("lane", lane)
+                    .description("DAO calls currently in flight")
+                    .register(meterRegistry);
+        }
+
+        private void acquire() {
+            lock.lock();
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+                while (inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        throw new TransientServiceException(
+                                "Database concurrency limit of " + (int) limit + " reached in lane " + name);
+                    }
+                    remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                }
+                inFlight++;
+                windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransientServiceException("Interrupted while waiting for a database permit", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(long rttNanos, boolean dropped) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (enabled) {
+                    if (dropped) {
+                        limit = Math.max(minLimit, limit * DROP_BACKOFF);
+                    } else {
+                        sample(rttNanos);
+                    }
+                }
+                permitReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double getLimit() {
+            lock.lock();
+            try {
+                return limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int getInFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sample(long rttNanos) {
+            windowRttNanos += rttNanos;
+            if (++windowSamples < windowSize) {
+                return;
+            }
+            double shortRttNanos = (double) windowRttNanos / windowSamples;
+            boolean appLimited = windowMaxInFlight < limit / 2;
+            windowRttNanos = 0;
+            windowSamples = 0;
+            windowMaxInFlight = inFlight;
+
+            longRttNanos = longRttNanos == 0 ? shortRttNanos :
+                    longRttNanos * (1 - LONG_RTT_SMOOTHING) + shortRttNanos * LONG_RTT_SMOOTHING;
+            if (shortRttNanos <= 0) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            if (appLimited && newLimit > limit) {
+                return;
+            }
+            newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+            newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            if ((int) newLimit != (int) limit) {
+                log.debug("Database concurrency limit of lane {} changed from {} to {}", name, (int) limit,
+                        (int) newLimit);
+            }
+            limit = newLimit;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.ServiceException;
+import com.service.payment.exception.TransientServiceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs repository calls behind the {@link DatabaseCircuitBreaker} and the {@link AdaptiveConcurrencyLimiter},
+ * translating {@link DataAccessException} into {@link TransientServiceException} or {@link ServiceException} and
+ * reporting every call's latency to the {@link DatabaseLoadMonitor} under its lane. Only transient failures count
+ * against the breaker, a constraint violation or a business rule failure still means the database answered.
+ */
+@Component
+@RequiredArgsConstructor
+public class DaoExecutor {
+
+    private final DatabaseLoadMonitor loadMonitor;
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public <T> T execute(DaoSupplier<T> supplier) {
+        DatabaseLane lane = DatabaseLane.current();
+        circuitBreaker.acquirePermission();
+        try {
+            concurrencyLimiter.acquire(lane);
+        } catch (RuntimeException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+        long start = System.nanoTime();
+        boolean transientFailure = false;
+        try {
+            return supplier.get();
+        } catch (DataAccessException e) {
+            if (DataAccessFailures.isTransient(e)) {
+                transientFailure = true;
+                throw new TransientServiceException("DAO operation failed", e);
+            }
+            throw new ServiceException("DAO operation failed", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            concurrencyLimiter.release(lane, elapsed, transientFailure);
+            loadMonitor.record(lane, elapsed);
+            if (transientFailure) {
+                circuitBreaker.onTransientFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+    }
+
+    public void execute(DaoProcessor processor) {
+        execute(() -> {
+            processor.process();
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    public interface DaoSupplier<T> {
+        T get();
+    }
+
+    @FunctionalInterface
+    public interface DaoProcessor {
+        void process();
+    }
+}
@@ -0,0 +1,36 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.TransientServiceException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientException;
+import java.util.List;
+
+/**
+ * Tells transient infrastructure failures apart from everything else. Connection, lock and timeout failures are
+ * transient, constraint violations and business rule failures are not.
+ */
+public final class DataAccessFailures {
+
+    public static final List<Class<? extends Throwable>> TRANSIENT_TYPES =
+            List.of(TransientServiceException.class, TransientDataAccessException.class,
+                    RecoverableDataAccessException.class, DataAccessResourceFailureException.class,
+                    CannotCreateTransactionException.class, SQLTransientException.class);
+
+    private DataAccessFailures() {
+    }
+
+    public static boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> type : TRANSIENT_TYPES) {
+                if (type.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
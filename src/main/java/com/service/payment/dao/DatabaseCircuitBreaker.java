@@ -0,0 +1,117 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops DAO calls after consecutive transient failures. While open, calls fail fast with
+ * {@link DatabaseUnavailableException}. Once the open period has elapsed a single probe call is let through: its
+ * success closes the breaker, its failure opens it again.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DatabaseCircuitBreaker {
+
+    public static final String STATE_METRIC = "payment.db.circuit-breaker.state";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.db.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.db.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${payment.db.circuit-breaker.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long openedAtNanos;
+
+    private boolean probeInFlight;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder(STATE_METRIC, this, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws DatabaseUnavailableException when the breaker is open or its probe call is already in flight
+     */
+    public synchronized void acquirePermission() {
+        if (!enabled || state == State.CLOSED) {
+            return;
+        }
+        if (state == State.OPEN) {
+            if (!openPeriodElapsed()) {
+                throw new DatabaseUnavailableException("Database circuit breaker is open");
+            }
+            state = State.HALF_OPEN;
+            log.info("Database circuit breaker half-open, probing");
+        }
+        if (probeInFlight) {
+            throw new DatabaseUnavailableException("Database circuit breaker is probing");
+        }
+        probeInFlight = true;
+    }
+
+    /**
+     * Gives back a permission whose call never reached the database.
+     */
+    public synchronized void releasePermission() {
+        probeInFlight = false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("Database circuit breaker closed");
+        }
+    }
+
+    public synchronized void onTransientFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            log.warn("Database circuit breaker opened after {} consecutive transient failures", consecutiveFailures);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return {@code true} while calls are rejected without a probe, i.e. the breaker is open and its open period has
+     * not elapsed yet
+     */
+    public synchronized boolean isRejectingCalls() {
+        return enabled && state == State.OPEN && !openPeriodElapsed();
+    }
+
+    private boolean openPeriodElapsed() {
+        return System.nanoTime() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
@@ -0,0 +1,26 @@
+package com.service.payment.dao;
+
+/**
+ * Bulkhead a DAO call runs in. Every lane has its own connection pool and its own concurrency limit, so a burst on one
+ * lane cannot take connections from the other. Threads run in {@link #API} unless a caller switches them.
+ */
+public enum DatabaseLane {
+
+    API, ORDERS;
+
+    private static final ThreadLocal<DatabaseLane> CURRENT = ThreadLocal.withInitial(() -> API);
+
+    public static DatabaseLane current() {
+        return CURRENT.get();
+    }
+
+    public void run(Runnable operation) {
+        DatabaseLane previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            operation.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
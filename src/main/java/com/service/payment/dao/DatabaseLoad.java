@@ -0,0 +1,18 @@
+package com.service.payment.dao;
+
+/**
+ * Database load observed since the previous sample.
+ *
+ * @param calls              DAO calls completed in the interval
+ * @param averageLatencyMs   average DAO call latency, {@code 0} without calls
+ * @param threadsAwaiting    threads blocked waiting for a pooled connection
+ * @param activeConnections  connections currently in use
+ * @param maximumConnections pool size limit, {@code 0} when the pool is not known
+ */
+public record DatabaseLoad(long calls, double averageLatencyMs, int threadsAwaiting, int activeConnections,
+                           int maximumConnections) {
+
+    public boolean poolSaturated() {
+        return threadsAwaiting > 0 || (maximumConnections > 0 && activeConnections >= maximumConnections);
+    }
+}
@@ -0,0 +1,79 @@
+package com.service.payment.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects DAO call latencies per {@link DatabaseLane} and reads the state of the lane's Hikari pool, which is the one
+ * shared pool when lanes are not routed. Each {@link #sample(DatabaseLane)} covers the calls of the lane completed
+ * since its previous sample, so slow calls of one lane do not show up in the load of another.
+ */
+@Component
+@Slf4j
+public class DatabaseLoadMonitor {
+
+    private final Map<DatabaseLane, HikariDataSource> pools = new EnumMap<>(DatabaseLane.class);
+
+    private final Map<DatabaseLane, LaneLatency> latencies = new EnumMap<>(DatabaseLane.class);
+
+    public DatabaseLoadMonitor(DataSource dataSource) {
+        for (DatabaseLane lane : DatabaseLane.values()) {
+            HikariDataSource pool = unwrapHikari(dataSource, lane);
+            if (pool != null) {
+                pools.put(lane, pool);
+            }
+            latencies.put(lane, new LaneLatency(new LongAdder(), new LongAdder()));
+        }
+    }
+
+    public void record(DatabaseLane lane, long elapsedNanos) {
+        LaneLatency latency = latencies.get(lane);
+        latency.calls().increment();
+        latency.nanos().add(elapsedNanos);
+    }
+
+    public synchronized DatabaseLoad sample(DatabaseLane lane) {
+        LaneLatency latency = latencies.get(lane);
+        long sampledCalls = latency.calls().sumThenReset();
+        long sampledNanos = latency.nanos().sumThenReset();
+        double averageLatencyMs =
+                sampledCalls == 0 ? 0 : (double) sampledNanos / sampledCalls / TimeUnit.MILLISECONDS.toNanos(1);
+
+        HikariDataSource hikariDataSource = pools.get(lane);
+        HikariPoolMXBean pool = hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return new DatabaseLoad(sampledCalls, averageLatencyMs, 0, 0, 0);
+        }
+        return new DatabaseLoad(sampledCalls, averageLatencyMs, pool.getThreadsAwaitingConnection(),
+                pool.getActiveConnections(), hikariDataSource.getMaximumPoolSize());
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource, DatabaseLane lane) {
+        if (dataSource instanceof LaneRoutingDataSource routingDataSource) {
+            return routingDataSource.getPool(lane);
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to unwrap the connection pool", e);
+        }
+        if (lane == DatabaseLane.ORDERS) {
+            log.warn("Connection pool is not Hikari, only DAO latency is monitored");
+        }
+        return null;
+    }
+
+    private record LaneLatency(LongAdder calls, LongAdder nanos) {
+    }
+}
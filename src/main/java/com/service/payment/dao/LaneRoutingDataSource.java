@@ -0,0 +1,39 @@
+package com.service.payment.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Routes connections to the pool of the caller's {@link DatabaseLane}.
+ */
+public class LaneRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<DatabaseLane, HikariDataSource> pools;
+
+    public LaneRoutingDataSource(Map<DatabaseLane, HikariDataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        if (this.pools.size() != DatabaseLane.values().length) {
+            throw new IllegalArgumentException("Every database lane needs a pool");
+        }
+        setTargetDataSources(Map.copyOf(this.pools));
+        setDefaultTargetDataSource(this.pools.get(DatabaseLane.API));
+        afterPropertiesSet();
+    }
+
+    public HikariDataSource getPool(DatabaseLane lane) {
+        return pools.get(lane);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DatabaseLane.current();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,85 @@
+package com.service.payment.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation inside a JDBC savepoint of the current transaction, so a failing operation rolls back only its own
+ * changes and the transaction stays usable. Savepoints are not visible to Hibernate, so while one is open writes have
+ * to be flushed with {@link #flush()} before it is released, see {@link #isActive()}, and after a rollback the
+ * persistence context is cleared, dropping entities whose state no longer matches the database. The operation must not
+ * go through a {@code @Transactional} participant that rolls back on its failure, since that marks the whole
+ * transaction rollback-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class SavepointExecutor {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> false);
+
+    private final DaoExecutor daoExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+    public void run(Runnable operation) {
+        Savepoint savepoint = withConnection(Connection::setSavepoint);
+        ACTIVE.set(true);
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            withConnection(connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            entityManager.clear();
+            throw e;
+        } finally {
+            ACTIVE.set(false);
+        }
+        withConnection(connection -> {
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    /**
+     * Flushes pending entity changes straight through the entity manager. Going through a repository would join the
+     * transaction as a participant, and a failing write would then mark the whole transaction rollback-only instead of
+     * staying with its savepoint.
+     */
+    public void flush() {
+        daoExecutor.execute(() -> translated(() -> {
+            entityManager.flush();
+            return null;
+        }));
+    }
+
+    private <T> T withConnection(ReturningWork<T> work) {
+        return daoExecutor.execute(() -> translated(() -> entityManager.unwrap(Session.class).doReturningWork(work)));
+    }
+
+    private static <T> T translated(Supplier<T> operation) {
+        try {
+            return operation.get();
+        } catch (PersistenceException e) {
+            DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.service.payment.exception;
+
+public class DatabaseUnavailableException extends TransientServiceException {
+    public DatabaseUnavailableException(String errorMessage) {
+        super(errorMessage);
+    }
+
+    public DatabaseUnavailableException(String errorMessage, Throwable err) {
+        super(errorMessage, err);
+    }
+
+    public DatabaseUnavailableException(Exception e) {
+        super(e);
+    }
+}
@@ -1,7 +1,21 @@
 package com.service.payment.exception;
 
-public class InsufficientAvailableBalanceException extends ValidationException {
+import com.service.payment.model.RejectionReason;
+
+import java.util.UUID;
+
+public class InsufficientAvailableBalanceException extends RejectionException {
     public  InsufficientAvailableBalanceException(String errorMessage) {
-        super(errorMessage);
+        super(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, errorMessage);
+    }
+
+    public InsufficientAvailableBalanceException(Long customerId, UUID orderId) {
+        super(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, customerId, orderId);
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Customer with id = " + getCustomerId() + " has not enough money to pay for order with id = " +
+                getOrderId();
     }
 }
@@ -1,7 +1,21 @@
 package com.service.payment.exception;
 
-public class InsufficientReserveBalanceException extends ValidationException {
+import com.service.payment.model.RejectionReason;
+
+import java.util.UUID;
+
+public class InsufficientReserveBalanceException extends RejectionException {
     public InsufficientReserveBalanceException(String errorMessage) {
-        super(errorMessage);
+        super(RejectionReason.INSUFFICIENT_RESERVED_BALANCE, errorMessage);
+    }
+
+    public InsufficientReserveBalanceException(Long customerId, UUID orderId) {
+        super(RejectionReason.INSUFFICIENT_RESERVED_BALANCE, customerId, orderId);
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Customer with id = " + getCustomerId() + " has not enough reserved balance to refund for order " +
+                "with id = " + getOrderId();
     }
 }
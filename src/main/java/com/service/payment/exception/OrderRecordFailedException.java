@@ -0,0 +1,32 @@
+package com.service.payment.exception;
+
+import lombok.Getter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Names the record whose order failed when the failure is reported against another record of the batch, so the error
+ * handler can give up on the record that actually failed.
+ */
+@Getter
+public class OrderRecordFailedException extends RuntimeException {
+
+    private final transient ConsumerRecord<?, ?> failedRecord;
+
+    public OrderRecordFailedException(ConsumerRecord<?, ?> failedRecord, Throwable err) {
+        super("Order record " + failedRecord.topic() + "-" + failedRecord.partition() + "@" + failedRecord.offset() +
+                " failed", err);
+        this.failedRecord = failedRecord;
+    }
+
+    /**
+     * Returns the record named by an {@code OrderRecordFailedException} in the cause chain, {@code null} if none is.
+     */
+    public static ConsumerRecord<?, ?> failedRecordOf(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OrderRecordFailedException failed) {
+                return failed.getFailedRecord();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.service.payment.exception;
+
+import com.service.payment.model.RejectionReason;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Routine business rejection of an order. It carries no stack trace and its message is only formatted when someone
+ * asks for it, so rejecting an order costs about as much as accepting it.
+ */
+public abstract class RejectionException extends ValidationException {
+
+    @Getter
+    private final RejectionReason reason;
+
+    @Getter
+    private final Long customerId;
+
+    @Getter
+    private final UUID orderId;
+
+    private String message;
+
+    protected RejectionException(RejectionReason reason, Long customerId, UUID orderId) {
+        super(null, false);
+        this.reason = reason;
+        this.customerId = customerId;
+        this.orderId = orderId;
+    }
+
+    protected RejectionException(RejectionReason reason, String errorMessage) {
+        this(reason, null, null);
+        this.message = errorMessage;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = formatMessage();
+        }
+        return message;
+    }
+
+    protected abstract String formatMessage();
+}
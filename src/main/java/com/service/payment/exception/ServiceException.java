@@ -13,4 +13,8 @@ public class ServiceException extends RuntimeException {
     public ServiceException(Exception e) {
         super(e);
     }
+
+    protected ServiceException(String errorMessage, boolean writableStackTrace) {
+        super(errorMessage, null, false, writableStackTrace);
+    }
 }
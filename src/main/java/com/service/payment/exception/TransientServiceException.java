@@ -0,0 +1,19 @@
+package com.service.payment.exception;
+
+/**
+ * Infrastructure failure that is expected to clear on its own, such as a connection or lock timeout. Callers retry
+ * these instead of treating them as a business outcome.
+ */
+public class TransientServiceException extends ServiceException {
+    public TransientServiceException(String errorMessage) {
+        super(errorMessage);
+    }
+
+    public TransientServiceException(String errorMessage, Throwable err) {
+        super(errorMessage, err);
+    }
+
+    public TransientServiceException(Exception e) {
+        super(e);
+    }
+}
@@ -11,4 +11,8 @@ public class ValidationException extends ServiceException {
         super(errorMessage);
     }
 
+    protected ValidationException(String errorMessage, boolean writableStackTrace) {
+        super(errorMessage, writableStackTrace);
+    }
+
 }
@@ -0,0 +1,137 @@
+package com.service.payment.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only journal of balance movements, written to memory-mapped segment files. An entry is appended once the
+ * surrounding transaction commits, so rolled back movements never reach the journal. Segments roll when full and the
+ * oldest ones are deleted beyond the retention count; {@link JournalReader} replays what is left.
+ */
+@Component
+@Slf4j
+public class AuditJournal {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${payment.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.journal.directory:journal}")
+    private String directory;
+
+    @Value("${payment.journal.segment-size-bytes:16777216}")
+    private int segmentSize;
+
+    @Value("${payment.journal.retention.max-segments:16}")
+    private int maxSegments;
+
+    private Path directoryPath;
+
+    private JournalSegment active;
+
+    private long activeSequence;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (segmentSize < JournalSegment.HEADER_SIZE + JournalEntry.SIZE) {
+            throw new IllegalArgumentException("Journal segment size is too small: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("Journal must retain at least one segment");
+        }
+        directoryPath = Files.createDirectories(Paths.get(directory));
+        List<Path> segments = JournalReader.segments(directoryPath);
+        activeSequence = segments.isEmpty() ? 0 : JournalReader.sequenceOf(segments.get(segments.size() - 1));
+        active = JournalSegment.open(JournalReader.segmentPath(directoryPath, activeSequence), segmentSize);
+        log.info("Audit journal opened at {}, active segment {}", directoryPath.toAbsolutePath(), activeSequence);
+    }
+
+    public void record(@NonNull JournalEntry entry) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(entry);
+                }
+            });
+        } else {
+            append(entry);
+        }
+    }
+
+    private void append(JournalEntry entry) {
+        lock.lock();
+        try {
+            if (!active.append(entry)) {
+                roll();
+                active.append(entry);
+            }
+        } catch (IOException e) {
+            log.error("Unable to append to the audit journal: {}", entry, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.close();
+        activeSequence++;
+        active = JournalSegment.open(JournalReader.segmentPath(directoryPath, activeSequence), segmentSize);
+        List<Path> segments = JournalReader.segments(directoryPath);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+            log.info("Deleted audit journal segment {}", segments.get(i).getFileName());
+        }
+    }
+
+    /**
+     * Mapped writes survive a process crash as they are; forcing bounds what an OS crash can lose.
+     */
+    @Scheduled(fixedDelayString = "${payment.journal.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            active.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            active.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
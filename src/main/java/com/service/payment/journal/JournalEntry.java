@@ -0,0 +1,66 @@
+package com.service.payment.journal;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * A balance movement in the fixed-size binary layout of a journal segment: type, timestamp, customer id, order id,
+ * amount and the customer balances after the movement, followed by a CRC32C of the preceding bytes. A missing order
+ * id is stored as the nil UUID.
+ */
+public record JournalEntry(@NonNull JournalEntryType type, long timestampMillis, long customerId, UUID orderId,
+                           long amount, long balanceAvailable, long balanceReserved) {
+
+    public static final UUID NIL_ORDER_ID = new UUID(0, 0);
+
+    static final int SIZE = 1 + 8 + 8 + 16 + 8 + 8 + 8 + 4;
+
+    private static final int PAYLOAD_SIZE = SIZE - 4;
+
+    public JournalEntry {
+        orderId = orderId == null ? NIL_ORDER_ID : orderId;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.put(type.code())
+                .putLong(timestampMillis)
+                .putLong(customerId)
+                .putLong(orderId.getMostSignificantBits())
+                .putLong(orderId.getLeastSignificantBits())
+                .putLong(amount)
+                .putLong(balanceAvailable)
+                .putLong(balanceReserved);
+        buffer.putInt(checksum(buffer, start));
+    }
+
+    /**
+     * Returns the entry at the buffer position and advances past it, or {@code null} without advancing when the slot
+     * is empty or torn.
+     */
+    static JournalEntry readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < SIZE) {
+            return null;
+        }
+        JournalEntryType type = JournalEntryType.fromCode(buffer.get(start));
+        if (type == null || buffer.getInt(start + PAYLOAD_SIZE) != checksum(buffer, start)) {
+            return null;
+        }
+        buffer.position(start + 1);
+        JournalEntry entry = new JournalEntry(type, buffer.getLong(), buffer.getLong(),
+                new UUID(buffer.getLong(), buffer.getLong()), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        buffer.position(start + SIZE);
+        return entry;
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, PAYLOAD_SIZE));
+        return (int) crc.getValue();
+    }
+
+}
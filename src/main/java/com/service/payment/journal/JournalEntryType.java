@@ -0,0 +1,14 @@
+package com.service.payment.journal;
+
+public enum JournalEntryType {
+    RESERVATION_CREATED, RESERVATION_ROLLED_BACK, RESERVATION_CONFIRMED;
+
+    byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    static JournalEntryType fromCode(byte code) {
+        JournalEntryType[] types = values();
+        return code >= 1 && code <= types.length ? types[code - 1] : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.service.payment.journal;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Replays the journal segments of a directory in write order. Can be run standalone to dump a journal:
+ * {@code java -cp payment-service.jar com.service.payment.journal.JournalReader <directory>}.
+ */
+public final class JournalReader {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private JournalReader() {
+    }
+
+    public static void replay(@NonNull Path directory, @NonNull Consumer<JournalEntry> consumer) throws IOException {
+        for (Path segment : segments(directory)) {
+            ByteBuffer buffer = JournalSegment.readOnly(segment);
+            JournalEntry entry;
+            while ((entry = JournalEntry.readFrom(buffer)) != null) {
+                consumer.accept(entry);
+            }
+        }
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static Path segmentPath(Path directory, long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JournalReader <journal directory>");
+            System.exit(1);
+        }
+        replay(Paths.get(args[0]), System.out::println);
+    }
+
+}
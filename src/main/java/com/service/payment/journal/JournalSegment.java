@@ -0,0 +1,89 @@
+package com.service.payment.journal;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A journal file of fixed size mapped into memory. The file starts with a magic number followed by back-to-back
+ * entries; the unused tail stays zero-filled, which is how the end of the written entries is found after a restart.
+ */
+class JournalSegment implements AutoCloseable {
+
+    static final int MAGIC = 0x504A3031;
+
+    static final int HEADER_SIZE = 4;
+
+    @Getter
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment open(Path path, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            int mappedSize = (int) Math.max(size, channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            int magic = buffer.getInt(0);
+            if (magic == 0) {
+                buffer.putInt(0, MAGIC);
+            } else if (magic != MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            buffer.position(HEADER_SIZE);
+            while (JournalEntry.readFrom(buffer) != null) {
+                // skip to the end of the written entries
+            }
+            return new JournalSegment(path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static ByteBuffer readOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            return buffer.position(HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Returns {@code false} when the segment has no room left for the entry.
+     */
+    boolean append(JournalEntry entry) {
+        if (buffer.remaining() < JournalEntry.SIZE) {
+            return false;
+        }
+        entry.writeTo(buffer);
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+}
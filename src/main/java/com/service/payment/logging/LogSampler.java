@@ -0,0 +1,47 @@
+package com.service.payment.logging;
+
+import lombok.NonNull;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a success-path log event is written. The rate of an event is read from
+ * {@code payment.logging.sampling.<event>} and falls back to {@code payment.logging.sampling.default-rate}.
+ * Failures are logged by the callers unconditionally and never go through the sampler.
+ */
+@Component
+public class LogSampler {
+
+    public static final String ORDER_RECEIVED = "order-received";
+
+    public static final String ORDER_PRODUCED = "order-produced";
+
+    public static final String RESERVATION_CHANGED = "reservation-changed";
+
+    private static final String PREFIX = "payment.logging.sampling.";
+
+    private final Environment environment;
+
+    private final double defaultRate;
+
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+
+    public LogSampler(@NonNull Environment environment) {
+        this.environment = environment;
+        this.defaultRate = environment.getProperty(PREFIX + "default-rate", Double.class, 1.0);
+    }
+
+    public boolean sample(@NonNull String event) {
+        double rate = rates.computeIfAbsent(event,
+                key -> environment.getProperty(PREFIX + key, Double.class, defaultRate));
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+}
@@ -17,6 +17,8 @@ public class Order {
 
     private String source;
 
+    private RejectionReason rejectionReason;
+
     public Long getTotalPrice() {
         return product.getTotalPrice();
     }
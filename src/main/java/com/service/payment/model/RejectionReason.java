@@ -0,0 +1,6 @@
+package com.service.payment.model;
+
+public enum RejectionReason {
+    INSUFFICIENT_AVAILABLE_BALANCE, INSUFFICIENT_RESERVED_BALANCE, CUSTOMER_NOT_FOUND, MALFORMED_ORDER, EXPIRED,
+    PROCESSING_ERROR
+}
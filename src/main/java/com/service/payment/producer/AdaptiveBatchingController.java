@@ -0,0 +1,167 @@
+package com.service.payment.producer;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Periodically samples the payment-orders producer and moves {@code linger.ms}/{@code batch.size} within the configured
+ * bounds. A change is applied only after the policy proposed it for several consecutive intervals. Applying it
+ * recreates the shared producer, so sends are held back while the old producer is flushed and closed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdaptiveBatchingController {
+
+    private static final String METRIC_GROUP = "producer-metrics";
+
+    private static final int DEFAULT_BATCH_SIZE = 16384;
+
+    private final ProducerFactory<String, Object> producerFactory;
+
+    private final KafkaTemplate<String, Object> template;
+
+    private final ReadWriteLock reconfigurationLock = new ReentrantReadWriteLock();
+
+    @Value("${kafka.payment-orders.batching.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kafka.payment-orders.batching.max-latency-ms:50}")
+    private int maxLatencyMs;
+
+    @Value("${kafka.payment-orders.batching.min-linger-ms:0}")
+    private int minLingerMs;
+
+    @Value("${kafka.payment-orders.batching.max-linger-ms:20}")
+    private int maxLingerMs;
+
+    @Value("${kafka.payment-orders.batching.min-batch-size:16384}")
+    private int minBatchSize;
+
+    @Value("${kafka.payment-orders.batching.max-batch-size:262144}")
+    private int maxBatchSize;
+
+    @Value("${kafka.payment-orders.batching.stable-intervals:3}")
+    private int stableIntervals;
+
+    private BatchingPolicy policy;
+
+    @Getter
+    private BatchingSettings current;
+
+    private BatchingSettings pending;
+
+    private int pendingIntervals;
+
+    @PostConstruct
+    void init() {
+        Map<String, Object> configs = producerFactory.getConfigurationProperties();
+        current = new BatchingSettings(intConfig(configs, ProducerConfig.LINGER_MS_CONFIG, 0),
+                intConfig(configs, ProducerConfig.BATCH_SIZE_CONFIG, DEFAULT_BATCH_SIZE));
+        if (!enabled) {
+            return;
+        }
+        policy = new BatchingPolicy(maxLatencyMs, minLingerMs, maxLingerMs, minBatchSize, maxBatchSize);
+        BatchingSettings clamped = policy.clamp(current);
+        if (!clamped.equals(current)) {
+            producerFactory.updateConfigs(toConfigs(clamped));
+            log.info("Producer batching clamped from {} to {}", current, clamped);
+            current = clamped;
+        }
+    }
+
+    /**
+     * Runs a send while no reconfiguration is in progress.
+     */
+    public void guardSend(Runnable send) {
+        Lock lock = reconfigurationLock.readLock();
+        lock.lock();
+        try {
+            send.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.payment-orders.batching.interval-ms:10000}",
+            initialDelayString = "${kafka.payment-orders.batching.interval-ms:10000}")
+    public synchronized void adjust() {
+        if (!enabled) {
+            return;
+        }
+        ProducerSample sample = sample(template.metrics());
+        BatchingSettings next = policy.next(current, sample);
+        if (next.equals(current)) {
+            pending = null;
+            pendingIntervals = 0;
+            return;
+        }
+        if (!next.equals(pending)) {
+            pending = next;
+            pendingIntervals = 0;
+        }
+        if (++pendingIntervals < stableIntervals) {
+            return;
+        }
+        apply(next);
+        log.info("Producer batching changed from {} to {}, {}", current, next, sample);
+        current = next;
+        pending = null;
+        pendingIntervals = 0;
+    }
+
+    private void apply(BatchingSettings settings) {
+        Lock lock = reconfigurationLock.writeLock();
+        lock.lock();
+        try {
+            producerFactory.updateConfigs(toConfigs(settings));
+            producerFactory.reset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static ProducerSample sample(Map<MetricName, ? extends Metric> metrics) {
+        return new ProducerSample(metric(metrics, "record-send-rate"), metric(metrics, "batch-size-avg"),
+                metric(metrics, "record-queue-time-avg"), metric(metrics, "request-latency-avg"));
+    }
+
+    private static double metric(Map<MetricName, ? extends Metric> metrics, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+            MetricName metricName = entry.getKey();
+            if (name.equals(metricName.name()) && METRIC_GROUP.equals(metricName.group())) {
+                Object value = entry.getValue().metricValue();
+                if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+                    return number.doubleValue();
+                }
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static Map<String, Object> toConfigs(BatchingSettings settings) {
+        return Map.of(ProducerConfig.LINGER_MS_CONFIG, settings.lingerMs(), ProducerConfig.BATCH_SIZE_CONFIG,
+                settings.batchSize());
+    }
+
+    private static int intConfig(Map<String, Object> configs, String name, int defaultValue) {
+        Object value = configs.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.toString());
+    }
+}
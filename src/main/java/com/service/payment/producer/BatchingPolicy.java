@@ -0,0 +1,66 @@
+package com.service.payment.producer;
+
+/**
+ * Chooses the next {@code linger.ms}/{@code batch.size} pair from a metrics sample. Linger never exceeds the latency
+ * budget, and only grows while enough records arrive within one linger window to actually share a batch.
+ */
+public class BatchingPolicy {
+
+    private static final double HIGH_FILL_RATIO = 0.8;
+
+    private static final double LOW_FILL_RATIO = 0.2;
+
+    private final int maxLatencyMs;
+
+    private final int minLingerMs;
+
+    private final int maxLingerMs;
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    public BatchingPolicy(int maxLatencyMs, int minLingerMs, int maxLingerMs, int minBatchSize, int maxBatchSize) {
+        if (minLingerMs < 0 || minLingerMs > maxLingerMs || minBatchSize <= 0 || minBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Invalid batching bounds");
+        }
+        this.maxLatencyMs = maxLatencyMs;
+        this.minLingerMs = minLingerMs;
+        this.maxLingerMs = Math.min(maxLingerMs, maxLatencyMs);
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public BatchingSettings clamp(BatchingSettings settings) {
+        return new BatchingSettings(clamp(settings.lingerMs(), minLingerMs, maxLingerMs),
+                clamp(settings.batchSize(), minBatchSize, maxBatchSize));
+    }
+
+    public BatchingSettings next(BatchingSettings current, ProducerSample sample) {
+        double fillRatio = sample.batchSizeAvg() / current.batchSize();
+        double recordsPerLinger = sample.sendRate() * Math.max(current.lingerMs(), 1) / 1000.0;
+
+        int lingerMs = current.lingerMs();
+        int batchSize = current.batchSize();
+        if (sample.latency() > maxLatencyMs) {
+            lingerMs = lingerMs / 2;
+            if (fillRatio > HIGH_FILL_RATIO) {
+                batchSize = batchSize * 2;
+            }
+        } else if (fillRatio > HIGH_FILL_RATIO) {
+            batchSize = batchSize * 2;
+        } else if (recordsPerLinger < 1) {
+            lingerMs = lingerMs / 2;
+            if (fillRatio < LOW_FILL_RATIO / 2) {
+                batchSize = batchSize / 2;
+            }
+        } else if (fillRatio < LOW_FILL_RATIO && sample.latency() < maxLatencyMs / 2.0) {
+            lingerMs = Math.max(lingerMs * 2, 1);
+        }
+        return clamp(new BatchingSettings(lingerMs, batchSize));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
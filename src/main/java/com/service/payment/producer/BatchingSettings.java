@@ -0,0 +1,4 @@
+package com.service.payment.producer;
+
+public record BatchingSettings(int lingerMs, int batchSize) {
+}
@@ -0,0 +1,16 @@
+package com.service.payment.producer;
+
+/**
+ * Producer metrics averaged by the Kafka client over its sample window.
+ *
+ * @param sendRate       records sent per second
+ * @param batchSizeAvg   average bytes per sent batch
+ * @param queueTimeAvg   average milliseconds a record waits in the accumulator
+ * @param requestLatency average milliseconds from produce request to ack
+ */
+public record ProducerSample(double sendRate, double batchSizeAvg, double queueTimeAvg, double requestLatency) {
+
+    public double latency() {
+        return queueTimeAvg + requestLatency;
+    }
+}
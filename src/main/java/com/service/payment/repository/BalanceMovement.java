@@ -0,0 +1,8 @@
+package com.service.payment.repository;
+
+/**
+ * A change of a customer's balances. It applies only when neither balance becomes negative, which matches the checks
+ * of {@link com.service.payment.validation.CustomerBalanceValidator} for reservations, rollbacks and confirmations.
+ */
+public record BalanceMovement(long customerId, long availableDelta, long reservedDelta) {
+}
@@ -0,0 +1,9 @@
+package com.service.payment.repository;
+
+/**
+ * Outcome of a {@link BalanceMovement}; the balances are the customer's balances after the movement and are only set
+ * when it was applied.
+ */
+public record BalanceMovementResult(boolean customerExists, boolean applied, Long balanceAvailable,
+                                    Long balanceReserved) {
+}
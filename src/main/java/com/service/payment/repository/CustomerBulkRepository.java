@@ -0,0 +1,19 @@
+package com.service.payment.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CustomerBulkRepository {
+
+    /**
+     * Applies the movements in order with array-parameter statements instead of one read and write per movement.
+     * Returns the result of each movement by position.
+     */
+    List<BalanceMovementResult> applyMovements(List<BalanceMovement> movements);
+
+    /**
+     * Applies a single movement of an order with one call to the {@code apply_balance_movement} database function,
+     * which also records it in the ledger and reports a movement already recorded for the order as a duplicate.
+     */
+    LedgerMovementResult applyLedgerMovement(UUID orderId, String movementType, BalanceMovement movement);
+}
@@ -0,0 +1,110 @@
+package com.service.payment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the movements as arrays joined through {@code unnest} into a single {@code UPDATE ... RETURNING}. A statement
+ * updates a row at most once, so the movements are split into rounds holding at most one movement per customer; the
+ * k-th round applies the k-th movement of every customer, which keeps per-customer order and sees earlier rounds.
+ */
+@RequiredArgsConstructor
+public class CustomerBulkRepositoryImpl implements CustomerBulkRepository {
+
+    private static final String APPLY_MOVEMENTS_SQL = """
+            WITH movement AS (
+                SELECT m.customer_id, m.available_delta, m.reserved_delta, m.position
+                FROM unnest(?::bigint[], ?::bigint[], ?::bigint[])
+                     WITH ORDINALITY AS m(customer_id, available_delta, reserved_delta, position)
+            ), updated AS (
+                UPDATE customer c
+                SET balance_available = c.balance_available + m.available_delta,
+                    balance_reserved  = c.balance_reserved + m.reserved_delta
+                FROM movement m
+                WHERE c.id = m.customer_id
+                  AND c.balance_available + m.available_delta >= 0
+                  AND c.balance_reserved + m.reserved_delta >= 0
+                RETURNING m.position, c.balance_available, c.balance_reserved
+            )
+            SELECT m.position, c.id IS NOT NULL AS customer_exists, u.position IS NOT NULL AS applied,
+                   u.balance_available, u.balance_reserved
+            FROM movement m
+                     LEFT JOIN updated u ON u.position = m.position
+                     LEFT JOIN customer c ON c.id = m.customer_id
+            ORDER BY m.position
+            """;
+
+    private static final String APPLY_LEDGER_MOVEMENT_SQL = """
+            SELECT outcome, result_balance_available, result_balance_reserved
+            FROM apply_balance_movement(?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<BalanceMovementResult> applyMovements(List<BalanceMovement> movements) {
+        BalanceMovementResult[] results = new BalanceMovementResult[movements.size()];
+        for (List<Integer> round : rounds(movements)) {
+            List<BalanceMovementResult> roundResults = applyRound(round.stream().map(movements::get).toList());
+            for (int i = 0; i < round.size(); i++) {
+                results[round.get(i)] = roundResults.get(i);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public LedgerMovementResult applyLedgerMovement(UUID orderId, String movementType, BalanceMovement movement) {
+        return jdbcTemplate.queryForObject(APPLY_LEDGER_MOVEMENT_SQL,
+                (resultSet, rowNum) -> new LedgerMovementResult(
+                        LedgerMovementResult.Outcome.valueOf(resultSet.getString("outcome")),
+                        resultSet.getObject("result_balance_available", Long.class),
+                        resultSet.getObject("result_balance_reserved", Long.class)),
+                orderId, movementType, movement.customerId(), movement.availableDelta(), movement.reservedDelta());
+    }
+
+    private List<BalanceMovementResult> applyRound(List<BalanceMovement> round) {
+        Long[] customerIds = new Long[round.size()];
+        Long[] availableDeltas = new Long[round.size()];
+        Long[] reservedDeltas = new Long[round.size()];
+        for (int i = 0; i < round.size(); i++) {
+            customerIds[i] = round.get(i).customerId();
+            availableDeltas[i] = round.get(i).availableDelta();
+            reservedDeltas[i] = round.get(i).reservedDelta();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_MOVEMENTS_SQL);
+            Array[] arrays = {connection.createArrayOf("bigint", customerIds),
+                    connection.createArrayOf("bigint", availableDeltas),
+                    connection.createArrayOf("bigint", reservedDeltas)};
+            for (int i = 0; i < arrays.length; i++) {
+                statement.setArray(i + 1, arrays[i]);
+            }
+            return statement;
+        }, (resultSet, rowNum) -> new BalanceMovementResult(resultSet.getBoolean("customer_exists"),
+                resultSet.getBoolean("applied"), resultSet.getObject("balance_available", Long.class),
+                resultSet.getObject("balance_reserved", Long.class)));
+    }
+
+    private static List<List<Integer>> rounds(List<BalanceMovement> movements) {
+        List<List<Integer>> rounds = new ArrayList<>();
+        Map<Long, Integer> movementsPerCustomer = new HashMap<>();
+        for (int position = 0; position < movements.size(); position++) {
+            int round = movementsPerCustomer.merge(movements.get(position).customerId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(position);
+        }
+        return rounds;
+    }
+}
@@ -1,7 +1,21 @@
 package com.service.payment.repository;
 
 import com.service.payment.entity.Customer;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
-}
\ No newline at end of file
+import java.util.Optional;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerBulkRepository {
+
+    /**
+     * Loads the customer with a {@code SELECT ... FOR UPDATE}, so concurrent balance updates of the same customer wait
+     * for each other instead of overwriting each other's changes. Must run inside a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Customer c where c.id = :id")
+    Optional<Customer> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,12 @@
+package com.service.payment.repository;
+
+/**
+ * Outcome of a movement applied through the {@code apply_balance_movement} database function; the balances are the
+ * customer's balances after the movement and are only set when it was applied.
+ */
+public record LedgerMovementResult(Outcome outcome, Long balanceAvailable, Long balanceReserved) {
+
+    public enum Outcome {
+        APPLIED, DUPLICATE, CUSTOMER_NOT_FOUND, INSUFFICIENT_BALANCE
+    }
+}
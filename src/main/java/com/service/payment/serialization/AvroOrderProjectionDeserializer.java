@@ -0,0 +1,145 @@
+package com.service.payment.serialization;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderV2;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads Confluent-framed {@link AvroOrder} records through a resolving decoder whose reader schema contains only the
+ * fields the processing path uses, so everything else (e.g. {@code source}) is skipped instead of materialized.
+ * Compact {@link AvroOrderV2} records are already minimal and are decoded as they are. Records whose status header
+ * names a status the service ignores are not decoded at all.
+ */
+public class AvroOrderProjectionDeserializer implements Deserializer<SpecificRecord> {
+
+    public static final String SCHEMA_REGISTRY_URL_CONFIG = "schema.registry.url";
+
+    public static final String RETAIN_RAW_VALUE_CONFIG = "payment.avro.retain-raw-value";
+
+    // Kept fields must stay a prefix of AvroOrder's fields: specific records are populated by field position.
+    static final Schema PROJECTION =
+            projectionOf(AvroOrder.getClassSchema(), Set.of("id", "customerId", "product", "status"));
+
+    private static final byte MAGIC_BYTE = 0x0;
+
+    private static final int FRAME_HEADER_SIZE = 5;
+
+    private static final int SCHEMA_CACHE_CAPACITY = 100;
+
+    // Generated custom decoders expect the full class schema, so the projection always goes through the resolver.
+    private static final SpecificData SPECIFIC_DATA = new SpecificData() {
+        @Override
+        public boolean useCustomCoders() {
+            return false;
+        }
+    };
+
+    private final Map<Integer, DatumReader<? extends SpecificRecord>> readers = new ConcurrentHashMap<>();
+
+    // A consumer drives its deserializer from a single thread, so the decoder is recycled between records.
+    // Decoded records are not: poll() deserializes the whole fetch before the listener sees the first one.
+    private BinaryDecoder decoder;
+
+    private SchemaRegistryClient schemaRegistryClient;
+
+    private boolean retainRawValue;
+
+    public AvroOrderProjectionDeserializer() {
+    }
+
+    public AvroOrderProjectionDeserializer(SchemaRegistryClient schemaRegistryClient) {
+        this.schemaRegistryClient = schemaRegistryClient;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (schemaRegistryClient == null) {
+            Object url = configs.get(SCHEMA_REGISTRY_URL_CONFIG);
+            if (url == null) {
+                throw new ConfigException("Missing required configuration " + SCHEMA_REGISTRY_URL_CONFIG);
+            }
+            schemaRegistryClient = new CachedSchemaRegistryClient(url.toString(), SCHEMA_CACHE_CAPACITY);
+        }
+        retainRawValue = Boolean.parseBoolean(String.valueOf(configs.get(RETAIN_RAW_VALUE_CONFIG)));
+    }
+
+    @Override
+    public SpecificRecord deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public SpecificRecord deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null || OrderHeaders.hasUnprocessableStatus(headers)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data.length < FRAME_HEADER_SIZE || buffer.get() != MAGIC_BYTE) {
+            throw new SerializationException("Unknown magic byte in order from topic " + topic);
+        }
+        int schemaId = buffer.getInt();
+
+        SpecificRecord order;
+        try {
+            decoder = DecoderFactory.get()
+                    .binaryDecoder(data, FRAME_HEADER_SIZE, data.length - FRAME_HEADER_SIZE, decoder);
+            order = readerFor(schemaId).read(null, decoder);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Error deserializing order with schema id = " + schemaId, e);
+        }
+
+        if (retainRawValue && headers != null) {
+            headers.add(OrderHeaders.RAW_VALUE, data);
+        }
+        return order;
+    }
+
+    private DatumReader<? extends SpecificRecord> readerFor(int schemaId) throws IOException {
+        DatumReader<? extends SpecificRecord> reader = readers.get(schemaId);
+        if (reader == null) {
+            Schema writerSchema = lookupWriterSchema(schemaId);
+            if (AvroOrderV2.getClassSchema().getFullName().equals(writerSchema.getFullName())) {
+                reader = new SpecificDatumReader<AvroOrderV2>(writerSchema, AvroOrderV2.getClassSchema(),
+                        SPECIFIC_DATA);
+            } else {
+                reader = new SpecificDatumReader<AvroOrder>(writerSchema, PROJECTION, SPECIFIC_DATA);
+            }
+            readers.put(schemaId, reader);
+        }
+        return reader;
+    }
+
+    private Schema lookupWriterSchema(int schemaId) throws IOException {
+        try {
+            return schemaRegistryClient.getById(schemaId);
+        } catch (RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema for id = " + schemaId, e);
+        }
+    }
+
+    static Schema projectionOf(Schema schema, Set<String> fieldNames) {
+        List<Schema.Field> fields = schema.getFields().stream().filter(field -> fieldNames.contains(field.name()))
+                .map(field -> new Schema.Field(field, field.schema())).toList();
+        return Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false, fields);
+    }
+}
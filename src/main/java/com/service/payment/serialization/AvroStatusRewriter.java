@@ -0,0 +1,154 @@
+package com.service.payment.serialization;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Patches the top-level {@code status} enum of a Confluent-framed Avro record in place. Every other byte, including
+ * fields this service does not know about, is copied through untouched.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AvroStatusRewriter {
+
+    private static final String STATUS_FIELD = "status";
+
+    private static final byte MAGIC_BYTE = 0x0;
+
+    private static final int FRAME_HEADER_SIZE = 5;
+
+    private final SchemaRegistryClient schemaRegistryClient;
+
+    /**
+     * @return the rewritten record, or {@code null} when the record cannot be patched (unknown framing, no enum status
+     * field, null status or a symbol the writer schema does not define)
+     */
+    public byte[] rewriteStatus(@NonNull byte[] framedValue, @NonNull Enum<?> status) {
+        if (framedValue.length < FRAME_HEADER_SIZE || framedValue[0] != MAGIC_BYTE) {
+            return null;
+        }
+        int schemaId = ByteBuffer.wrap(framedValue, 1, 4).getInt();
+        try {
+            Schema writerSchema = schemaRegistryClient.getById(schemaId);
+            if (writerSchema.getType() != Schema.Type.RECORD || writerSchema.getField(STATUS_FIELD) == null) {
+                return null;
+            }
+            Cursor cursor = new Cursor(framedValue, FRAME_HEADER_SIZE);
+            for (Schema.Field field : writerSchema.getFields()) {
+                if (STATUS_FIELD.equals(field.name())) {
+                    return rewriteEnum(cursor, field.schema(), status.name());
+                }
+                skip(field.schema(), cursor);
+            }
+            return null;
+        } catch (IOException | RestClientException | RuntimeException e) {
+            log.warn("Unable to rewrite status of record with schema id = {}", schemaId, e);
+            return null;
+        }
+    }
+
+    private byte[] rewriteEnum(Cursor cursor, Schema schema, String symbol) {
+        Schema enumSchema = schema;
+        if (schema.getType() == Schema.Type.UNION) {
+            enumSchema = schema.getTypes().get((int) cursor.readLong());
+        }
+        if (enumSchema.getType() != Schema.Type.ENUM || !enumSchema.hasEnumSymbol(symbol)) {
+            return null;
+        }
+        int start = cursor.position;
+        cursor.readLong();
+        int end = cursor.position;
+
+        byte[] data = cursor.data;
+        byte[] symbolIndex = encodeLong(enumSchema.getEnumOrdinal(symbol));
+        byte[] result = new byte[data.length - (end - start) + symbolIndex.length];
+        System.arraycopy(data, 0, result, 0, start);
+        System.arraycopy(symbolIndex, 0, result, start, symbolIndex.length);
+        System.arraycopy(data, end, result, start + symbolIndex.length, data.length - end);
+        return result;
+    }
+
+    private void skip(Schema schema, Cursor cursor) {
+        switch (schema.getType()) {
+            case NULL -> {
+            }
+            case BOOLEAN -> cursor.skip(1);
+            case INT, LONG, ENUM -> cursor.readLong();
+            case FLOAT -> cursor.skip(4);
+            case DOUBLE -> cursor.skip(8);
+            case STRING, BYTES -> cursor.skip((int) cursor.readLong());
+            case FIXED -> cursor.skip(schema.getFixedSize());
+            case UNION -> skip(schema.getTypes().get((int) cursor.readLong()), cursor);
+            case RECORD -> schema.getFields().forEach(field -> skip(field.schema(), cursor));
+            case ARRAY -> skipBlocks(cursor, () -> skip(schema.getElementType(), cursor));
+            case MAP -> skipBlocks(cursor, () -> {
+                cursor.skip((int) cursor.readLong());
+                skip(schema.getValueType(), cursor);
+            });
+        }
+    }
+
+    private void skipBlocks(Cursor cursor, Runnable skipItem) {
+        for (long count = cursor.readLong(); count != 0; count = cursor.readLong()) {
+            if (count < 0) {
+                cursor.skip((int) cursor.readLong());
+            } else {
+                for (long i = 0; i < count; i++) {
+                    skipItem.run();
+                }
+            }
+        }
+    }
+
+    private static byte[] encodeLong(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(10);
+        long n = (value << 1) ^ (value >> 63);
+        while ((n & ~0x7FL) != 0) {
+            out.write((int) ((n & 0x7F) | 0x80));
+            n >>>= 7;
+        }
+        out.write((int) n);
+        return out.toByteArray();
+    }
+
+    private static class Cursor {
+
+        private final byte[] data;
+
+        private int position;
+
+        private Cursor(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private long readLong() {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private void skip(int length) {
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalStateException("Avro value exceeds record bounds");
+            }
+            position += length;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.service.payment.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+public final class OrderHeaders {
+
+    public static final String RAW_VALUE = "payment_raw_value";
+
+    public static final String STATUS = "order_status";
+
+    public static final String REJECTION_REASON = "order_rejection_reason";
+
+    private static final Set<String> PROCESSABLE_STATUSES = Set.of("NEW", "ROLLBACK", "CONFIRMATION");
+
+    private OrderHeaders() {
+    }
+
+    public static byte[] status(Enum<?> status) {
+        return status.name().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] rejectionReason(Enum<?> reason) {
+        return reason.name().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns {@code true} only when the record carries a status header naming a status the payment service does not
+     * act on. Records without the header are never skipped.
+     */
+    public static boolean hasUnprocessableStatus(Headers headers) {
+        if (headers == null) {
+            return false;
+        }
+        Header header = headers.lastHeader(STATUS);
+        if (header == null) {
+            return false;
+        }
+        return header.value() == null ||
+                !PROCESSABLE_STATUSES.contains(new String(header.value(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,5 @@
+package com.service.payment.serialization;
+
+public enum OrderWireFormat {
+    LEGACY, COMPACT
+}
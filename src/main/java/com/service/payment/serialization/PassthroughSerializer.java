@@ -0,0 +1,51 @@
+package com.service.payment.serialization;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.Map;
+
+/**
+ * Writes {@code byte[]} values as they are and hands everything else to the configured delegate serializer.
+ */
+public class PassthroughSerializer implements Serializer<Object> {
+
+    public static final String DELEGATE_CLASS_CONFIG = "payment.serializer.delegate.class";
+
+    private Serializer<Object> delegate;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object delegateClass = configs.get(DELEGATE_CLASS_CONFIG);
+        if (delegateClass == null) {
+            throw new ConfigException("Missing required configuration " + DELEGATE_CLASS_CONFIG);
+        }
+        try {
+            delegate = delegateClass instanceof Class<?> clazz ? (Serializer<Object>) Utils.newInstance(clazz) :
+                    Utils.newInstance(delegateClass.toString(), Serializer.class);
+        } catch (ClassNotFoundException e) {
+            throw new ConfigException(DELEGATE_CLASS_CONFIG, delegateClass, "Class not found");
+        }
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data instanceof byte[] bytes ? bytes : delegate.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        return data instanceof byte[] bytes ? bytes : delegate.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+}
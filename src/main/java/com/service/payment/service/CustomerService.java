@@ -1,26 +1,47 @@
 package com.service.payment.service;
 
+import com.service.payment.cache.MissingCustomerCache;
 import com.service.payment.converter.ConverterService;
 import com.service.payment.converter.CustomerFromCustomerDtoUpdater;
+import com.service.payment.dao.DaoExecutor;
+import com.service.payment.dao.SavepointExecutor;
 import com.service.payment.dto.CustomerDto;
 import com.service.payment.dto.DtoSearchResponse;
 import com.service.payment.entity.Customer;
 import com.service.payment.exception.EntityAlreadyExistsException;
 import com.service.payment.exception.EntityNotFoundException;
+import com.service.payment.exception.InsufficientAvailableBalanceException;
+import com.service.payment.exception.InsufficientReserveBalanceException;
 import com.service.payment.exception.ServiceException;
+import com.service.payment.exception.ValidationException;
+import com.service.payment.journal.AuditJournal;
+import com.service.payment.journal.JournalEntry;
+import com.service.payment.journal.JournalEntryType;
+import com.service.payment.logging.LogSampler;
 import com.service.payment.model.Order;
+import com.service.payment.model.OrderStatus;
+import com.service.payment.repository.BalanceMovement;
+import com.service.payment.repository.BalanceMovementResult;
 import com.service.payment.repository.CustomerRepository;
+import com.service.payment.repository.LedgerMovementResult;
 import com.service.payment.validation.CustomerBalanceValidator;
 import com.service.payment.validation.CustomerValidator;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataAccessException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 @Service
 @Slf4j
@@ -37,24 +58,41 @@ public class CustomerService {
 
     private final ConverterService converter;
 
+    private final DaoExecutor daoExecutor;
+
+    private final LogSampler logSampler;
+
+    private final AuditJournal auditJournal;
+
+    private final MissingCustomerCache missingCustomerCache;
+
+    private final SavepointExecutor savepointExecutor;
+
+    @Value("${payment.db.bulk-movements.enabled:false}")
+    private boolean bulkMovementsEnabled;
+
+    @Value("${payment.db.ledger-function.enabled:false}")
+    private boolean ledgerFunctionEnabled;
+
     @Transactional
     public Long create(@NonNull CustomerDto customerDto) {
         Customer customer = convertToEntity(customerDto);
         customerValidator.validate(customer);
-        Customer savedCustomer = execute(() -> {
+        Customer savedCustomer = daoExecutor.execute(() -> {
             if (customer.getId() != null && customerRepository.existsById(customer.getId())) {
                 throw new EntityAlreadyExistsException("Customer with id = " + customer.getId() + " already exists");
             }
             return customerRepository.save(customer);
         });
+        missingCustomerCache.invalidate(savedCustomer.getId());
         log.info("Created Customer {}", savedCustomer);
         return savedCustomer.getId();
     }
 
     @Transactional
     public CustomerDto update(@NonNull CustomerDto customerDto, @NonNull Long id) {
-        Customer customerToUpdate = execute(() -> {
-            Customer customer = customerRepository.findById(id)
+        Customer customerToUpdate = daoExecutor.execute(() -> {
+            Customer customer = customerRepository.findByIdForUpdate(id)
                     .orElseThrow(() -> new EntityNotFoundException("There is no Customer to update with id = " + id));
 
             customerFromCustomerDtoUpdater.update(customerDto, customer);
@@ -67,22 +105,20 @@ public class CustomerService {
     }
 
     public Customer findById(@NonNull Long id) {
-        Customer customer = execute(() -> customerRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("There is no Customer with id = " + id)));
+        Customer customer = findExisting(id);
         log.debug("Retrieved Customer by id = {}", id);
         return customer;
     }
 
     public CustomerDto findByIdAsDto(@NonNull Long id) {
-        Customer customer = execute(() -> customerRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("There is no Customer with id = " + id)));
+        Customer customer = findExisting(id);
         log.debug("Retrieved Customer by id = {}", id);
         return convertToDto(customer);
     }
 
     @Transactional
     public void deleteById(@NonNull Long id) {
-        execute(() -> {
+        daoExecutor.execute(() -> {
             if (!customerRepository.existsById(id)) {
                 throw new EntityNotFoundException("There is no Custoemr to delete with id = " + id);
             }
@@ -92,8 +128,8 @@ public class CustomerService {
     }
 
     public DtoSearchResponse findAll(@NonNull Pageable pageable) {
-        List<CustomerDto> carDTOList =
-                execute(() -> customerRepository.findAll(pageable)).stream().map(this::convertToDto).toList();
+        List<CustomerDto> carDTOList = daoExecutor.execute(() -> customerRepository.findAll(pageable)).stream()
+                .map(this::convertToDto).toList();
         log.debug("Retrieved All {} Cars", carDTOList.size());
         return DtoSearchResponse.builder().offset(pageable.getOffset()).limit(pageable.getPageSize())
                 .total(carDTOList.size()).sort(pageable.getSort().toString()).data(carDTOList).build();
@@ -102,73 +138,345 @@ public class CustomerService {
 
     @Transactional
     public void createReservation(@NonNull Order order) {
-        Customer customer = findById(order.getCustomerId());
+        applyReservation(order);
+    }
 
-        customerReservationValidator.validateReservationCreation(customer, order);
+    @Transactional
+    public void rollbackReservation(@NonNull Order order) {
+        applyRollback(order);
+    }
 
-        customer.setBalanceReserved(customer.getBalanceReserved() + order.getTotalPrice());
-        customer.setBalanceAvailable(customer.getBalanceAvailable() - order.getTotalPrice());
+    @Transactional
+    public void confirmReservation(@NonNull Order order) {
+        applyConfirmation(order);
+    }
 
-        execute(() -> customerRepository.save(customer));
-        log.info("Customer reservation created: {} for Order: {}", customer, order);
+    /**
+     * Applies a reservation, rollback or confirmation, chosen by the order status, inside the caller's transaction. A
+     * {@link ServiceException} leaves the transaction usable, so a caller that runs each order in its own savepoint
+     * can roll back a rejected order alone and still commit the others.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = ServiceException.class)
+    public void applyMovementInTransaction(@NonNull Order order) {
+        if (order.getStatus() == OrderStatus.NEW) {
+            applyReservation(order);
+        } else if (order.getStatus() == OrderStatus.ROLLBACK) {
+            applyRollback(order);
+        } else if (order.getStatus() == OrderStatus.CONFIRMATION) {
+            applyConfirmation(order);
+        } else {
+            throw new ValidationException("Order status " + order.getStatus() + " is not a balance movement");
+        }
     }
 
+    /**
+     * Applies the reservations, rollbacks and confirmations of a batch in one transaction. Movements of a customer are
+     * applied in order in memory, with the same checks as the single-order methods, and the customer is written once.
+     * Returns the failure of each order by position, {@code null} for the applied ones; a failure to read or write a
+     * customer fails the whole batch. Customers are locked in id order, so concurrent batches cannot deadlock.
+     */
     @Transactional
-    public void rollbackReservation(@NonNull Order order) {
-        Customer customer = findById(order.getCustomerId());
+    public List<ServiceException> applyMovements(@NonNull List<Order> orders) {
+        if (bulkMovementsEnabled) {
+            return applyMovementsInBulk(orders);
+        }
+        ServiceException[] failures = new ServiceException[orders.size()];
+        Map<Long, List<Integer>> positionsByCustomer = new TreeMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            positionsByCustomer.computeIfAbsent(orders.get(i).getCustomerId(), id -> new ArrayList<>()).add(i);
+        }
+        positionsByCustomer.forEach((customerId, positions) -> {
+            Customer customer;
+            try {
+                customer = lockExisting(customerId);
+            } catch (EntityNotFoundException e) {
+                positions.forEach(position -> failures[position] = e);
+                return;
+            }
+            List<JournalEntry> applied = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                Order order = orders.get(position);
+                try {
+                    applied.add(journalEntry(applyMovement(customer, order), customer, order));
+                } catch (ValidationException e) {
+                    failures[position] = e;
+                }
+            }
+            if (applied.isEmpty()) {
+                return;
+            }
+            daoExecutor.execute(() -> customerRepository.save(customer));
+            applied.forEach(auditJournal::record);
+            logReservation("Customer movements coalesced", customer, applied.size());
+        });
+        return Arrays.asList(failures);
+    }
 
+    /**
+     * Same outcome as the per-customer path, but the movements are sent as arrays in a few set-based statements and no
+     * customer is loaded.
+     */
+    private List<ServiceException> applyMovementsInBulk(List<Order> orders) {
+        ServiceException[] failures = new ServiceException[orders.size()];
+        List<Integer> positions = new ArrayList<>(orders.size());
+        List<BalanceMovement> movements = new ArrayList<>(orders.size());
+        long token = missingCustomerCache.token();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (missingCustomerCache.isKnownMissing(order.getCustomerId())) {
+                failures[i] = new EntityNotFoundException("There is no Customer with id = " + order.getCustomerId());
+            } else if (journalEntryType(order) == null) {
+                failures[i] =
+                        new ValidationException("Order status " + order.getStatus() + " is not a balance movement");
+            } else {
+                positions.add(i);
+                movements.add(balanceMovement(order));
+            }
+        }
+        if (movements.isEmpty()) {
+            return Arrays.asList(failures);
+        }
+
+        List<BalanceMovementResult> results = daoExecutor.execute(() -> customerRepository.applyMovements(movements));
+
+        for (int i = 0; i < results.size(); i++) {
+            Order order = orders.get(positions.get(i));
+            BalanceMovementResult result = results.get(i);
+            if (!result.customerExists()) {
+                missingCustomerCache.recordMiss(order.getCustomerId(), token);
+                failures[positions.get(i)] =
+                        new EntityNotFoundException("There is no Customer with id = " + order.getCustomerId());
+            } else if (!result.applied()) {
+                failures[positions.get(i)] = order.getStatus() == OrderStatus.NEW
+                        ? new InsufficientAvailableBalanceException(order.getCustomerId(), order.getId())
+                        : new InsufficientReserveBalanceException(order.getCustomerId(), order.getId());
+            } else {
+                auditJournal.record(journalEntry(journalEntryType(order), order, result.balanceAvailable(),
+                        result.balanceReserved()));
+            }
+        }
+        return Arrays.asList(failures);
+    }
+
+    private void applyReservation(Order order) {
+        if (ledgerFunctionEnabled) {
+            applyLedgerMovement(order, OrderStatus.NEW);
+            return;
+        }
+        Customer customer = lockExisting(order.getCustomerId());
+
+        reserve(customer, order);
+
+        save(customer);
+        auditJournal.record(journalEntry(JournalEntryType.RESERVATION_CREATED, customer, order));
+        logReservation("Customer reservation created", customer, order);
+    }
+
+    private void applyRollback(Order order) {
+        if (ledgerFunctionEnabled) {
+            applyLedgerMovement(order, OrderStatus.ROLLBACK);
+            return;
+        }
+        Customer customer = lockExisting(order.getCustomerId());
+
+        release(customer, order);
+
+        save(customer);
+        auditJournal.record(journalEntry(JournalEntryType.RESERVATION_ROLLED_BACK, customer, order));
+        logReservation("Customer reservation rollbacked", customer, order);
+    }
+
+    private void applyConfirmation(Order order) {
+        if (ledgerFunctionEnabled) {
+            applyLedgerMovement(order, OrderStatus.CONFIRMATION);
+            return;
+        }
+        Customer customer = lockExisting(order.getCustomerId());
+
+        settle(customer, order);
+
+        save(customer);
+        auditJournal.record(journalEntry(JournalEntryType.RESERVATION_CONFIRMED, customer, order));
+        logReservation("Customer reservation confirmed", customer, order);
+    }
+
+    /**
+     * Applies the movement with a single call to the {@code apply_balance_movement} database function, which checks the
+     * balances, moves them and records the movement in the ledger. A movement the ledger already holds for the order is
+     * skipped, so a redelivered order is answered as before without moving the balances twice.
+     */
+    private void applyLedgerMovement(Order order, OrderStatus movementType) {
+        if (missingCustomerCache.isKnownMissing(order.getCustomerId())) {
+            throw new EntityNotFoundException("There is no Customer with id = " + order.getCustomerId());
+        }
+        long token = missingCustomerCache.token();
+        LedgerMovementResult result = daoExecutor.execute(() -> customerRepository.applyLedgerMovement(order.getId(),
+                movementType.name(), balanceMovement(movementType, order)));
+
+        switch (result.outcome()) {
+            case APPLIED -> {
+                auditJournal.record(journalEntry(journalEntryType(movementType), order, result.balanceAvailable(),
+                        result.balanceReserved()));
+                logReservation("Customer balance movement applied", order, result);
+            }
+            case DUPLICATE -> log.info("Skipped duplicate {} of order {}", movementType, order.getId());
+            case CUSTOMER_NOT_FOUND -> {
+                missingCustomerCache.recordMiss(order.getCustomerId(), token);
+                throw new EntityNotFoundException("There is no Customer with id = " + order.getCustomerId());
+            }
+            case INSUFFICIENT_BALANCE -> throw movementType == OrderStatus.NEW
+                    ? new InsufficientAvailableBalanceException(order.getCustomerId(), order.getId())
+                    : new InsufficientReserveBalanceException(order.getCustomerId(), order.getId());
+        }
+    }
+
+    private static BalanceMovement balanceMovement(Order order) {
+        return balanceMovement(order.getStatus(), order);
+    }
+
+    private static BalanceMovement balanceMovement(OrderStatus movementType, Order order) {
+        long amount = order.getTotalPrice();
+        return switch (movementType) {
+            case NEW -> new BalanceMovement(order.getCustomerId(), -amount, amount);
+            case ROLLBACK -> new BalanceMovement(order.getCustomerId(), amount, -amount);
+            default -> new BalanceMovement(order.getCustomerId(), 0, -amount);
+        };
+    }
+
+    private static JournalEntryType journalEntryType(Order order) {
+        return journalEntryType(order.getStatus());
+    }
+
+    private static JournalEntryType journalEntryType(OrderStatus movementType) {
+        if (movementType == null) {
+            return null;
+        }
+        return switch (movementType) {
+            case NEW -> JournalEntryType.RESERVATION_CREATED;
+            case ROLLBACK -> JournalEntryType.RESERVATION_ROLLED_BACK;
+            case CONFIRMATION -> JournalEntryType.RESERVATION_CONFIRMED;
+            default -> null;
+        };
+    }
+
+    private JournalEntryType applyMovement(Customer customer, Order order) {
+        if (order.getStatus() == OrderStatus.NEW) {
+            reserve(customer, order);
+            return JournalEntryType.RESERVATION_CREATED;
+        }
+        if (order.getStatus() == OrderStatus.ROLLBACK) {
+            release(customer, order);
+            return JournalEntryType.RESERVATION_ROLLED_BACK;
+        }
+        if (order.getStatus() == OrderStatus.CONFIRMATION) {
+            settle(customer, order);
+            return JournalEntryType.RESERVATION_CONFIRMED;
+        }
+        throw new ValidationException("Order status " + order.getStatus() + " is not a balance movement");
+    }
+
+    private void reserve(Customer customer, Order order) {
+        customerReservationValidator.validateReservationCreation(customer, order);
+
+        customer.setBalanceReserved(customer.getBalanceReserved() + order.getTotalPrice());
+        customer.setBalanceAvailable(customer.getBalanceAvailable() - order.getTotalPrice());
+    }
+
+    private void release(Customer customer, Order order) {
         customerReservationValidator.validateReservationRollback(customer, order);
 
         customer.setBalanceReserved(customer.getBalanceReserved() - order.getTotalPrice());
         customer.setBalanceAvailable(customer.getBalanceAvailable() + order.getTotalPrice());
-
-        execute(() -> customerRepository.save(customer));
-        log.info("Customer reservation rollbacked: {} for Order: {}", customer, order);
     }
 
-    @Transactional
-    public void confirmReservation(@NonNull Order order) {
-        Customer customer = findById(order.getCustomerId());
-
+    private void settle(Customer customer, Order order) {
         customerReservationValidator.validateReservationConfirmation(customer, order);
 
         customer.setBalanceReserved(customer.getBalanceReserved() - order.getTotalPrice());
+    }
 
-        execute(() -> customerRepository.save(customer));
-        log.info("Customer reservation confirmed: {} for Order: {}", customer, order);
+    /**
+     * Inside a savepoint the write is flushed right away, so a failing update is rolled back with its savepoint before
+     * the movement is journaled.
+     */
+    private void save(Customer customer) {
+        daoExecutor.execute(() -> customerRepository.save(customer));
+        if (SavepointExecutor.isActive()) {
+            savepointExecutor.flush();
+        }
     }
 
-    private CustomerDto convertToDto(Customer customer) {
-        return converter.convert(customer, CustomerDto.class);
+    private Customer findExisting(Long id) {
+        return findExisting(id, customerRepository::findById);
     }
 
-    private Customer convertToEntity(CustomerDto customerDto) {
-        return converter.convert(customerDto, Customer.class);
+    /**
+     * Balance updates are read-modify-write, so the customer row is locked until the transaction ends.
+     */
+    private Customer lockExisting(Long id) {
+        return findExisting(id, customerRepository::findByIdForUpdate);
     }
 
-    private <T> T execute(DaoSupplier<T> supplier) {
-        try {
-            return supplier.get();
-        } catch (DataAccessException e) {
-            throw new ServiceException("DAO operation failed", e);
+    private Customer findExisting(Long id, Function<Long, Optional<Customer>> finder) {
+        if (missingCustomerCache.isKnownMissing(id)) {
+            throw new EntityNotFoundException("There is no Customer with id = " + id);
+        }
+        long token = missingCustomerCache.token();
+        Customer customer = daoExecutor.execute(() -> finder.apply(id).orElse(null));
+        if (customer == null) {
+            missingCustomerCache.recordMiss(id, token);
+            throw new EntityNotFoundException("There is no Customer with id = " + id);
         }
+        return customer;
+    }
+
+    private JournalEntry journalEntry(JournalEntryType type, Customer customer, Order order) {
+        return journalEntry(type, order, customer.getBalanceAvailable(), customer.getBalanceReserved());
     }
 
-    private void execute(DaoProcessor processor) {
-        try {
-            processor.process();
-        } catch (DataAccessException e) {
-            throw new ServiceException("DAO operation failed", e);
+    private JournalEntry journalEntry(JournalEntryType type, Order order, long balanceAvailable,
+                                      long balanceReserved) {
+        return new JournalEntry(type, System.currentTimeMillis(), order.getCustomerId(), order.getId(),
+                order.getTotalPrice(), balanceAvailable, balanceReserved);
+    }
+
+    private void logReservation(String message, Customer customer, Order order) {
+        if (logSampler.sample(LogSampler.RESERVATION_CHANGED)) {
+            log.atInfo().addKeyValue("customerId", customer.getId())
+                    .addKeyValue("orderId", order.getId())
+                    .addKeyValue("amount", order.getTotalPrice())
+                    .addKeyValue("balanceAvailable", customer.getBalanceAvailable())
+                    .addKeyValue("balanceReserved", customer.getBalanceReserved())
+                    .log(message);
+        }
+    }
+
+    private void logReservation(String message, Order order, LedgerMovementResult result) {
+        if (logSampler.sample(LogSampler.RESERVATION_CHANGED)) {
+            log.atInfo().addKeyValue("customerId", order.getCustomerId())
+                    .addKeyValue("orderId", order.getId())
+                    .addKeyValue("amount", order.getTotalPrice())
+                    .addKeyValue("balanceAvailable", result.balanceAvailable())
+                    .addKeyValue("balanceReserved", result.balanceReserved())
+                    .log(message);
+        }
+    }
+
+    private void logReservation(String message, Customer customer, int movements) {
+        if (logSampler.sample(LogSampler.RESERVATION_CHANGED)) {
+            log.atInfo().addKeyValue("customerId", customer.getId())
+                    .addKeyValue("movements", movements)
+                    .addKeyValue("balanceAvailable", customer.getBalanceAvailable())
+                    .addKeyValue("balanceReserved", customer.getBalanceReserved())
+                    .log(message);
         }
     }
 
-    @FunctionalInterface
-    public interface DaoSupplier<T> {
-        T get();
+    private CustomerDto convertToDto(Customer customer) {
+        return converter.convert(customer, CustomerDto.class);
     }
 
-    @FunctionalInterface
-    public interface DaoProcessor {
-        void process();
+    private Customer convertToEntity(CustomerDto customerDto) {
+        return converter.convert(customerDto, Customer.class);
     }
 }
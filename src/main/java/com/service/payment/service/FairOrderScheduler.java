@@ -0,0 +1,67 @@
+package com.service.payment.service;
+
+import lombok.NonNull;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interleaves the records of a batch across customers by weighted fair queueing, so a burst of one customer does not
+ * hold back everyone behind it. The k-th record of a customer with weight w gets the virtual finish time k / w and
+ * records are handled by finish time, then by arrival; the records of a customer keep their order. Weights are read
+ * from {@code kafka.orders.fair-scheduling.weights.<customerId>} and default to
+ * {@code kafka.orders.fair-scheduling.default-weight}.
+ */
+@Component
+public class FairOrderScheduler {
+
+    private static final String PREFIX = "kafka.orders.fair-scheduling.";
+
+    private final int defaultWeight;
+
+    private final Map<Long, Integer> weights;
+
+    public FairOrderScheduler(@NonNull Environment environment) {
+        this.defaultWeight = environment.getProperty(PREFIX + "default-weight", Integer.class, 1);
+        this.weights = Binder.get(environment).bind(PREFIX + "weights", Bindable.mapOf(Long.class, Integer.class))
+                .orElse(Map.of());
+        if (defaultWeight < 1 || weights.values().stream().anyMatch(weight -> weight < 1)) {
+            throw new IllegalArgumentException("Fair scheduling weights must be positive");
+        }
+    }
+
+    public List<OrderRecord> interleave(@NonNull List<OrderRecord> records) {
+        if (records.size() < 2) {
+            return records;
+        }
+        Map<Long, Integer> counts = new HashMap<>();
+        List<Slot> slots = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Long customerId = records.get(i).avroOrder().getCustomerId();
+            int count = counts.merge(customerId, 1, Integer::sum);
+            slots.add(new Slot(records.get(i), count, weightOf(customerId), i));
+        }
+        slots.sort(Comparator.naturalOrder());
+        return slots.stream().map(Slot::record).toList();
+    }
+
+    private int weightOf(Long customerId) {
+        return customerId == null ? defaultWeight : weights.getOrDefault(customerId, defaultWeight);
+    }
+
+    private record Slot(OrderRecord record, long count, long weight, int arrival) implements Comparable<Slot> {
+
+        @Override
+        public int compareTo(Slot other) {
+            int byFinish = Long.compare(count * other.weight, other.count * weight);
+            return byFinish != 0 ? byFinish : Integer.compare(arrival, other.arrival);
+        }
+    }
+}
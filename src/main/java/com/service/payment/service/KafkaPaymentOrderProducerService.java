@@ -1,12 +1,20 @@
 package com.service.payment.service;
 
-import com.service.avro.model.AvroOrder;
 import com.service.payment.converter.OrderToAvroOrderConverter;
+import com.service.payment.converter.OrderToAvroOrderV2Converter;
 import com.service.payment.exception.ServiceException;
+import com.service.payment.logging.LogSampler;
 import com.service.payment.model.Order;
+import com.service.payment.model.Product;
+import com.service.payment.producer.AdaptiveBatchingController;
+import com.service.payment.serialization.AvroStatusRewriter;
+import com.service.payment.serialization.OrderHeaders;
+import com.service.payment.serialization.OrderWireFormat;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -17,22 +25,78 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class KafkaPaymentOrderProducerService {
 
-    private final KafkaTemplate<String, AvroOrder> template;
+    private final KafkaTemplate<String, Object> template;
 
     private final OrderToAvroOrderConverter converter;
 
+    private final OrderToAvroOrderV2Converter compactConverter;
+
+    private final AvroStatusRewriter statusRewriter;
+
+    private final AdaptiveBatchingController batchingController;
+
+    private final LogSampler logSampler;
+
     @Value("${kafka.payment-orders.topic}")
     private String topic;
 
+    @Value("${kafka.payment-orders.wire-format:LEGACY}")
+    private OrderWireFormat wireFormat;
+
+    @Value("${kafka.payment-orders.passthrough.enabled:false}")
+    private boolean passthroughEnabled;
+
     public void sendOrder(@NonNull Order order) {
-        AvroOrder avroOrder = converter.convert(order);
+        sendOrder(order, null);
+    }
+
+    /**
+     * When passthrough is enabled and the consumed record bytes are available, only the status of the original record
+     * is rewritten and the upstream encoding is kept as is. Otherwise the order is converted and serialized again.
+     */
+    public void sendOrder(@NonNull Order order, byte[] rawValue) {
+        Object value = null;
+        if (passthroughEnabled && rawValue != null && order.getStatus() != null) {
+            value = statusRewriter.rewriteStatus(rawValue, order.getStatus());
+        }
+        if (value == null) {
+            value = toAvro(order);
+        }
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, String.valueOf(order.getId()), value);
+        if (order.getStatus() != null) {
+            record.headers().add(OrderHeaders.STATUS, OrderHeaders.status(order.getStatus()));
+        }
+        if (order.getRejectionReason() != null) {
+            record.headers()
+                    .add(OrderHeaders.REJECTION_REASON, OrderHeaders.rejectionReason(order.getRejectionReason()));
+        }
         try {
-            this.template.send(topic, String.valueOf(avroOrder.getId()), avroOrder);
-            log.info("Produced to Kafka: {}", avroOrder);
+            batchingController.guardSend(() -> this.template.send(record));
+            if (logSampler.sample(LogSampler.ORDER_PRODUCED)) {
+                log.atInfo().addKeyValue("orderId", order.getId())
+                        .addKeyValue("status", order.getStatus())
+                        .addKeyValue("rejectionReason", order.getRejectionReason())
+                        .addKeyValue("passthrough", value instanceof byte[])
+                        .log("Produced to Kafka");
+            }
         } catch (KafkaException e) {
             throw new ServiceException("Error sending order to Kafka", e);
         }
     }
 
+    private SpecificRecord toAvro(Order order) {
+        return wireFormat == OrderWireFormat.COMPACT && fitsCompact(order) ? compactConverter.convert(order)
+                : converter.convert(order);
+    }
+
+    /**
+     * Only the source is optional in the compact schema, so an order missing anything else, like a malformed order
+     * being rejected, is sent in the legacy schema instead.
+     */
+    private static boolean fitsCompact(Order order) {
+        Product product = order.getProduct();
+        return order.getId() != null && order.getCustomerId() != null && order.getStatus() != null && product != null
+                && product.getId() != null && product.getQuantity() != null && product.getPrice() != null;
+    }
 
 }
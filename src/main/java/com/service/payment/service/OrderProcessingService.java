@@ -1,11 +1,30 @@
 package com.service.payment.service;
 
 import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import com.service.payment.dao.DataAccessFailures;
+import com.service.payment.exception.OrderRecordFailedException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
@@ -13,14 +32,130 @@ public class OrderProcessingService {
 
     private final OrderService orderService;
 
+    private final FairOrderScheduler fairOrderScheduler;
+
+    @Value("${kafka.orders.coalescing.enabled:false}")
+    private boolean coalescingEnabled;
+
+    @Value("${kafka.orders.group-commit.enabled:false}")
+    private boolean groupCommitEnabled;
+
+    @Value("${kafka.orders.priority.enabled:false}")
+    private boolean priorityEnabled;
+
+    @Value("${kafka.orders.fair-scheduling.enabled:false}")
+    private boolean fairSchedulingEnabled;
+
+    @Value("${kafka.orders.max-age-ms:0}")
+    private long maxAgeMs;
+
+    /**
+     * Offsets, per partition, of records handled ahead of a failed record when priority or fair scheduling reorders a
+     * batch. Kept in memory: after a rebalance the new owner redelivers them, which the ledger de-duplication of
+     * {@code payment.db.ledger-function.enabled} absorbs.
+     */
+    private final Map<TopicPartition, NavigableSet<Long>> handledAhead = new ConcurrentHashMap<>();
+
+    /**
+     * Processes a polled batch. Orders are handled one by one unless coalescing or group commit is enabled, in which
+     * case the whole batch is applied in one transaction; coalescing wins when both are set. The records are handled in
+     * the order given by {@link #schedule(List)}. NEW orders older than the maximum age, by record timestamp, are
+     * rejected up front without any database work. A failure is reported against the earliest record not yet handled,
+     * so the records before it are committed and the rest is redelivered; records that were handled ahead of it are
+     * skipped on redelivery, see {@link #handledAhead}. The record that actually failed travels in an
+     * {@link OrderRecordFailedException}, which is the one given up on once retries run out. A batch applied in one
+     * transaction is redelivered as a whole, without the records given up on; when its failure names no order and is
+     * not transient, nothing was applied or answered and its orders are handled one by one instead.
+     */
+    public void process(@NonNull List<OrderRecord> records) {
+        if (coalescingEnabled || groupCommitEnabled) {
+            List<OrderRecord> movements = records.stream()
+                    .filter(record -> isMovement(record.avroOrder()) && !wasHandledAhead(record)).toList();
+            if (movements.isEmpty()) {
+                forgetHandledAhead(records);
+                return;
+            }
+            long now = System.currentTimeMillis();
+            List<OrderRecord> live = new ArrayList<>(movements.size());
+            List<OrderRecord> rejected = new ArrayList<>();
+            try {
+                for (OrderRecord record : movements) {
+                    if (isExpired(record, now)) {
+                        orderService.rejectExpired(record.avroOrder(), record.rawValue());
+                        rejected.add(record);
+                    } else {
+                        live.add(record);
+                    }
+                }
+                if (!live.isEmpty()) {
+                    List<OrderRecord> schedule = schedule(live);
+                    if (coalescingEnabled) {
+                        orderService.processCoalesced(schedule);
+                    } else {
+                        orderService.processGroupCommit(schedule);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (DataAccessFailures.isTransient(e) || OrderRecordFailedException.failedRecordOf(e) != null) {
+                    throw new BatchListenerFailedException("Order batch failed", e,
+                            movements.get(0).consumerRecord());
+                }
+                log.warn("Order batch failed without naming an order, processing its orders one by one", e);
+                processOneByOne(records, rejected);
+                return;
+            }
+            forgetHandledAhead(records);
+            return;
+        }
+        processOneByOne(records, List.of());
+    }
+
+    /**
+     * Handles the records one at a time in the order given by {@link #schedule(List)}, leaving out the ones already
+     * handled.
+     */
+    private void processOneByOne(List<OrderRecord> records, List<OrderRecord> handledBefore) {
+        Set<OrderRecord> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+        skipped.addAll(handledBefore);
+        List<OrderRecord> schedule = schedule(records);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < schedule.size(); i++) {
+            OrderRecord record = schedule.get(i);
+            if (skipped.contains(record)) {
+                continue;
+            }
+            if (wasHandledAhead(record)) {
+                log.debug("Skipped order {} handled before redelivery", record.avroOrder().getId());
+                continue;
+            }
+            try {
+                if (isExpired(record, now)) {
+                    orderService.rejectExpired(record.avroOrder(), record.rawValue());
+                } else {
+                    process(record.avroOrder(), record.rawValue());
+                }
+            } catch (RuntimeException e) {
+                List<OrderRecord> handled = new ArrayList<>(handledBefore);
+                handled.addAll(schedule.subList(0, i));
+                OrderRecord resumeFrom = rememberHandledAhead(records, handled);
+                throw new BatchListenerFailedException("Order processing failed",
+                        new OrderRecordFailedException(record.consumerRecord(), e), resumeFrom.consumerRecord());
+            }
+        }
+        forgetHandledAhead(records);
+    }
+
     public void process(@NonNull AvroOrder avroOrder) {
-        if (avroOrder.getStatus() == null) {
-            log.warn("Order status is null for order: {}", avroOrder);
+        process(avroOrder, null);
+    }
+
+    public void process(@NonNull AvroOrder avroOrder, byte[] rawValue) {
+        if (!isMovement(avroOrder)) {
             return;
         }
         switch (avroOrder.getStatus()) {
             case NEW:
-                orderService.processNewOrder(avroOrder);
+                orderService.processNewOrder(avroOrder, rawValue);
                 break;
             case ROLLBACK:
                 orderService.processRollbackOrder(avroOrder);
@@ -28,8 +163,129 @@ public class OrderProcessingService {
             case CONFIRMATION:
                 orderService.processConfirmationOrder(avroOrder);
                 break;
+        }
+    }
+
+    /**
+     * With priority enabled, ROLLBACK and CONFIRMATION orders are moved ahead of the NEW ones, see
+     * {@link #prioritized(List)}. With fair scheduling enabled, each of these groups is interleaved across customers by
+     * the {@link FairOrderScheduler}. Otherwise records are handled in arrival order.
+     */
+    private List<OrderRecord> schedule(List<OrderRecord> records) {
+        if (!priorityEnabled) {
+            return fairSchedulingEnabled ? fairOrderScheduler.interleave(records) : records;
+        }
+        List<List<OrderRecord>> groups = prioritized(records);
+        List<OrderRecord> schedule = new ArrayList<>(records.size());
+        for (List<OrderRecord> group : groups) {
+            schedule.addAll(fairSchedulingEnabled ? fairOrderScheduler.interleave(group) : group);
+        }
+        return schedule;
+    }
+
+    /**
+     * Splits the records into ROLLBACK and CONFIRMATION orders, handled first so funds are released before new
+     * reservations compete for them, and the rest, keeping arrival order within each group. An order stays behind any
+     * earlier record of the same order, which keeps a rollback or confirmation after the reservation it finishes.
+     */
+    private static List<List<OrderRecord>> prioritized(List<OrderRecord> records) {
+        List<OrderRecord> prioritized = new ArrayList<>(records.size());
+        List<OrderRecord> deferred = new ArrayList<>();
+        Set<String> seenOrderIds = new HashSet<>();
+        for (OrderRecord record : records) {
+            AvroOrder avroOrder = record.avroOrder();
+            String orderId = avroOrder.getId() == null ? null : avroOrder.getId().toString();
+            boolean finishing = avroOrder.getStatus() == AvroOrderStatus.ROLLBACK ||
+                    avroOrder.getStatus() == AvroOrderStatus.CONFIRMATION;
+            if (finishing && orderId != null && !seenOrderIds.contains(orderId)) {
+                prioritized.add(record);
+            } else {
+                deferred.add(record);
+            }
+            if (orderId != null) {
+                seenOrderIds.add(orderId);
+            }
+        }
+        return List.of(prioritized, deferred);
+    }
+
+    /**
+     * Only NEW orders expire; rollbacks and confirmations release or settle funds already reserved and always apply.
+     * Records without a timestamp never expire.
+     */
+    private boolean isExpired(OrderRecord record, long now) {
+        long timestamp = record.consumerRecord().timestamp();
+        return maxAgeMs > 0 && timestamp >= 0 && now - timestamp > maxAgeMs &&
+                record.avroOrder().getStatus() == AvroOrderStatus.NEW;
+    }
+
+    /**
+     * Finds the earliest record, in arrival order, that was not handled; the error handler commits the records before
+     * it and redelivers the rest. Handled records among the rest were scheduled ahead of it and are remembered, so the
+     * redelivery skips them instead of moving balances a second time.
+     */
+    private OrderRecord rememberHandledAhead(List<OrderRecord> records, List<OrderRecord> handled) {
+        Set<OrderRecord> handledRecords = Collections.newSetFromMap(new IdentityHashMap<>());
+        handledRecords.addAll(handled);
+        OrderRecord resumeFrom = null;
+        for (OrderRecord record : records) {
+            if (resumeFrom == null && !handledRecords.contains(record)) {
+                resumeFrom = record;
+            } else if (resumeFrom != null && handledRecords.contains(record)) {
+                skipOnRedelivery(record.consumerRecord());
+            }
+        }
+        return Objects.requireNonNull(resumeFrom);
+    }
+
+    /**
+     * Makes redeliveries skip a record the error handler gave up on while it redelivers the records around it.
+     */
+    public void skipOnRedelivery(@NonNull ConsumerRecord<?, ?> consumerRecord) {
+        handledAhead.computeIfAbsent(topicPartition(consumerRecord), partition -> new ConcurrentSkipListSet<>())
+                .add(consumerRecord.offset());
+    }
+
+    private boolean wasHandledAhead(OrderRecord record) {
+        ConsumerRecord<?, ?> consumerRecord = record.consumerRecord();
+        NavigableSet<Long> offsets = handledAhead.get(topicPartition(consumerRecord));
+        return offsets != null && offsets.contains(consumerRecord.offset());
+    }
+
+    /**
+     * Once a batch is handled completely its offsets are committed and cannot be redelivered to this consumer.
+     */
+    private void forgetHandledAhead(List<OrderRecord> records) {
+        if (handledAhead.isEmpty()) {
+            return;
+        }
+        for (OrderRecord record : records) {
+            ConsumerRecord<?, ?> consumerRecord = record.consumerRecord();
+            NavigableSet<Long> offsets = handledAhead.get(topicPartition(consumerRecord));
+            if (offsets != null) {
+                offsets.headSet(consumerRecord.offset(), true).clear();
+            }
+        }
+        handledAhead.values().removeIf(Set::isEmpty);
+    }
+
+    private static TopicPartition topicPartition(ConsumerRecord<?, ?> consumerRecord) {
+        return new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+    }
+
+    private static boolean isMovement(AvroOrder avroOrder) {
+        if (avroOrder.getStatus() == null) {
+            log.warn("Order status is null for order: {}", avroOrder.getId());
+            return false;
+        }
+        switch (avroOrder.getStatus()) {
+            case NEW:
+            case ROLLBACK:
+            case CONFIRMATION:
+                return true;
             default:
                 log.warn("Unknown order status: {}", avroOrder.getStatus());
+                return false;
         }
     }
 }
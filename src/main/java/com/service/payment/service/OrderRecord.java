@@ -0,0 +1,11 @@
+package com.service.payment.service;
+
+import com.service.avro.model.AvroOrder;
+import lombok.NonNull;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * A consumed order together with the bytes it was decoded from, when retained, and the record it came from.
+ */
+public record OrderRecord(@NonNull AvroOrder avroOrder, byte[] rawValue, @NonNull ConsumerRecord<?, ?> consumerRecord) {
+}
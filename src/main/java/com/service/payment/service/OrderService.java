@@ -1,14 +1,30 @@
 package com.service.payment.service;
 
 import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
 import com.service.payment.converter.ConverterService;
+import com.service.payment.dao.DataAccessFailures;
+import com.service.payment.dao.SavepointExecutor;
+import com.service.payment.exception.EntityNotFoundException;
+import com.service.payment.exception.OrderRecordFailedException;
+import com.service.payment.exception.RejectionException;
 import com.service.payment.exception.ServiceException;
+import com.service.payment.exception.TransientServiceException;
 import com.service.payment.model.Order;
 import com.service.payment.model.OrderStatus;
+import com.service.payment.model.RejectionReason;
+import com.service.payment.validation.OrderPreValidator;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -21,24 +37,47 @@ public class OrderService {
 
     private final ConverterService converter;
 
+    private final RetryTemplate daoRetryTemplate;
+
+    private final OrderPreValidator orderPreValidator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SavepointExecutor savepointExecutor;
+
     public void processNewOrder(@NonNull AvroOrder avroOrder) {
+        processNewOrder(avroOrder, null);
+    }
+
+    public void processNewOrder(@NonNull AvroOrder avroOrder, byte[] rawValue) {
+        String problem = orderPreValidator.findProblem(avroOrder);
+        if (problem != null) {
+            rejectMalformed(avroOrder, rawValue, problem);
+            return;
+        }
         Order order = convertToEntity(avroOrder);
 
         try {
-            customerService.createReservation(order);
+            withRetry(() -> customerService.createReservation(order));
             order.setStatus(OrderStatus.ACCEPT);
+        } catch (TransientServiceException e) {
+            throw e;
         } catch (ServiceException e) {
-            order.setStatus(OrderStatus.REJECT);
-            log.info("Error during reservation creation", e);
+            reject(order, e);
         }
 
-        kafkaPaymentOrderProducerService.sendOrder(order);
+        kafkaPaymentOrderProducerService.sendOrder(order, rawValue);
     }
 
     public void processRollbackOrder(@NonNull AvroOrder avroOrder) {
+        if (isMalformed(avroOrder)) {
+            return;
+        }
         Order order = convertToEntity(avroOrder);
         try {
-            customerService.rollbackReservation(order);
+            withRetry(() -> customerService.rollbackReservation(order));
+        } catch (TransientServiceException e) {
+            throw e;
         } catch (ServiceException e) {
             log.error("Error during rollback reservation", e);
         }
@@ -46,16 +85,218 @@ public class OrderService {
     }
 
     public void processConfirmationOrder(@NonNull AvroOrder avroOrder) {
+        if (isMalformed(avroOrder)) {
+            return;
+        }
         Order order = convertToEntity(avroOrder);
         try {
-            customerService.confirmReservation(order);
+            withRetry(() -> customerService.confirmReservation(order));
+        } catch (TransientServiceException e) {
+            throw e;
         } catch (ServiceException e) {
             log.error("Error during confirmation reservation", e);
         }
     }
 
+    /**
+     * Answers a NEW order that waited longer than the maximum order age with a REJECT, without any database work.
+     */
+    public void rejectExpired(@NonNull AvroOrder avroOrder, byte[] rawValue) {
+        String problem = orderPreValidator.findProblem(avroOrder);
+        if (problem != null) {
+            rejectMalformed(avroOrder, rawValue, problem);
+            return;
+        }
+        Order order = convertToEntity(avroOrder);
+        order.setStatus(OrderStatus.REJECT);
+        order.setRejectionReason(RejectionReason.EXPIRED);
+        log.info("Order {} rejected: {}", order.getId(), RejectionReason.EXPIRED);
+        kafkaPaymentOrderProducerService.sendOrder(order, rawValue);
+    }
+
+    /**
+     * Applies the movements of a batch together through {@link CustomerService#applyMovements(List)} and answers the
+     * NEW orders afterwards. Malformed orders are handled as in the single-order path. A failed answer fails the batch
+     * with an {@link OrderRecordFailedException} naming its order.
+     */
+    public void processCoalesced(@NonNull List<OrderRecord> records) {
+        List<Order> orders = new ArrayList<>(records.size());
+        List<OrderRecord> sources = new ArrayList<>(records.size());
+        for (OrderRecord record : records) {
+            AvroOrder avroOrder = record.avroOrder();
+            String problem = orderPreValidator.findProblem(avroOrder);
+            if (problem == null) {
+                orders.add(convertToEntity(avroOrder));
+                sources.add(record);
+            } else if (avroOrder.getStatus() == AvroOrderStatus.NEW) {
+                rejectMalformed(avroOrder, record.rawValue(), problem);
+            } else {
+                log.warn("Skipped malformed {} order {}: {}", avroOrder.getStatus(), avroOrder.getId(), problem);
+            }
+        }
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        List<ServiceException> failures = withRetry(() -> customerService.applyMovements(orders));
+
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            ServiceException failure = failures.get(i);
+            if (order.getStatus() == OrderStatus.NEW) {
+                if (failure == null) {
+                    order.setStatus(OrderStatus.ACCEPT);
+                } else {
+                    reject(order, failure);
+                }
+                try {
+                    kafkaPaymentOrderProducerService.sendOrder(order, sources.get(i).rawValue());
+                } catch (RuntimeException e) {
+                    throw new OrderRecordFailedException(sources.get(i).consumerRecord(), e);
+                }
+            } else if (failure != null) {
+                log.error("Error during {} of order {}", order.getStatus(), order.getId(), failure);
+            }
+        }
+    }
+
+    /**
+     * Applies the orders of a batch in one transaction, each inside its own savepoint, so a failing order is rolled
+     * back alone while the others commit together. NEW orders are answered once the transaction has committed; a
+     * transient failure retries the whole batch. A failure that left the transaction rollback-only, which a savepoint
+     * cannot undo, fails the batch with an {@link OrderRecordFailedException} naming the order that caused it, as does
+     * a failed answer.
+     */
+    public void processGroupCommit(@NonNull List<OrderRecord> records) {
+        List<Reply> replies = withRetry(() -> transactionTemplate.execute(status -> applyInGroup(records, status)));
+        for (Reply reply : replies) {
+            try {
+                kafkaPaymentOrderProducerService.sendOrder(reply.order(), reply.record().rawValue());
+            } catch (RuntimeException e) {
+                throw new OrderRecordFailedException(reply.record().consumerRecord(), e);
+            }
+        }
+    }
+
+    private List<Reply> applyInGroup(List<OrderRecord> records, TransactionStatus status) {
+        List<Reply> replies = new ArrayList<>(records.size());
+        for (OrderRecord record : records) {
+            AvroOrder avroOrder = record.avroOrder();
+            String problem = orderPreValidator.findProblem(avroOrder);
+            if (problem != null) {
+                if (avroOrder.getStatus() == AvroOrderStatus.NEW) {
+                    Order rejected = malformedReject(avroOrder, problem);
+                    if (rejected != null) {
+                        replies.add(new Reply(rejected, record));
+                    }
+                } else {
+                    log.warn("Skipped malformed {} order {}: {}", avroOrder.getStatus(), avroOrder.getId(), problem);
+                }
+                continue;
+            }
+            Order order = convertToEntity(avroOrder);
+            OrderStatus movement = order.getStatus();
+            try {
+                savepointExecutor.run(() -> customerService.applyMovementInTransaction(order));
+                if (movement == OrderStatus.NEW) {
+                    order.setStatus(OrderStatus.ACCEPT);
+                }
+            } catch (TransientServiceException e) {
+                throw e;
+            } catch (ServiceException e) {
+                if (status.isRollbackOnly()) {
+                    throw new OrderRecordFailedException(record.consumerRecord(), e);
+                }
+                if (movement == OrderStatus.NEW) {
+                    reject(order, e);
+                } else {
+                    log.error("Error during {} of order {}", movement, order.getId(), e);
+                }
+            }
+            if (movement == OrderStatus.NEW) {
+                replies.add(new Reply(order, record));
+            }
+        }
+        return replies;
+    }
+
+    private void rejectMalformed(AvroOrder avroOrder, byte[] rawValue, String problem) {
+        Order order = malformedReject(avroOrder, problem);
+        if (order != null) {
+            kafkaPaymentOrderProducerService.sendOrder(order, rawValue);
+        }
+    }
+
+    private Order malformedReject(AvroOrder avroOrder, String problem) {
+        if (!orderPreValidator.hasValidId(avroOrder)) {
+            log.warn("Dropped malformed order without a valid id: {}", problem);
+            return null;
+        }
+        Order order = convertToEntity(avroOrder);
+        order.setStatus(OrderStatus.REJECT);
+        order.setRejectionReason(RejectionReason.MALFORMED_ORDER);
+        log.info("Order {} rejected: {}, {}", order.getId(), RejectionReason.MALFORMED_ORDER, problem);
+        return order;
+    }
+
+    private boolean isMalformed(AvroOrder avroOrder) {
+        String problem = orderPreValidator.findProblem(avroOrder);
+        if (problem != null) {
+            log.warn("Skipped malformed {} order {}: {}", avroOrder.getStatus(), avroOrder.getId(), problem);
+        }
+        return problem != null;
+    }
+
+    private void reject(Order order, ServiceException e) {
+        RejectionReason reason = rejectionReasonOf(e);
+        order.setStatus(OrderStatus.REJECT);
+        order.setRejectionReason(reason);
+        if (reason == RejectionReason.PROCESSING_ERROR) {
+            log.warn("Order {} rejected: {}", order.getId(), reason, e);
+        } else {
+            log.info("Order {} rejected: {}", order.getId(), reason);
+        }
+    }
+
+    private static RejectionReason rejectionReasonOf(ServiceException e) {
+        if (e instanceof RejectionException rejection) {
+            return rejection.getReason();
+        }
+        if (e instanceof EntityNotFoundException) {
+            return RejectionReason.CUSTOMER_NOT_FOUND;
+        }
+        return RejectionReason.PROCESSING_ERROR;
+    }
+
+    /**
+     * Retries transient failures with backoff. When retries run out the failure is rethrown as
+     * {@link TransientServiceException}, so the record is redelivered instead of being answered with a REJECT.
+     */
+    private void withRetry(Runnable operation) {
+        withRetry(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private <T> T withRetry(Supplier<T> operation) {
+        try {
+            return daoRetryTemplate.execute(context -> operation.get());
+        } catch (TransientServiceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (DataAccessFailures.isTransient(e)) {
+                throw new TransientServiceException("Database operation failed after retries", e);
+            }
+            throw e;
+        }
+    }
+
     private Order convertToEntity(AvroOrder avroOrder) {
         return converter.convert(avroOrder, Order.class);
     }
 
+    private record Reply(Order order, OrderRecord record) {
+    }
+
 }
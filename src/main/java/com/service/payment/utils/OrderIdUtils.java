@@ -0,0 +1,20 @@
+package com.service.payment.utils;
+
+import com.service.avro.model.AvroOrderId;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+public class OrderIdUtils {
+
+    public static AvroOrderId toAvroOrderId(UUID id) {
+        return new AvroOrderId(
+                ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                        .array());
+    }
+
+    public static UUID toUuid(AvroOrderId id) {
+        ByteBuffer buffer = ByteBuffer.wrap(id.bytes());
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -14,25 +14,19 @@ public class CustomerBalanceValidator {
 
     public void validateReservationCreation(@NonNull Customer customer, @NonNull Order order) {
         if (customer.getBalanceAvailable() < order.getTotalPrice()) {
-            throw new InsufficientAvailableBalanceException(
-                    "Customer with id = " + customer.getId() + " has not enough money to pay for order with id" + " =" +
-                            " " + order.getId());
+            throw new InsufficientAvailableBalanceException(customer.getId(), order.getId());
         }
     }
 
     public void validateReservationRollback(@NonNull Customer customer, @NonNull Order order) {
         if (customer.getBalanceReserved() < order.getTotalPrice()) {
-            throw new InsufficientReserveBalanceException(
-                    "Customer with id = " + customer.getId() + " has not enough reserved balance to refund for " +
-                            "order with id" + " =" + " " + order.getId());
+            throw new InsufficientReserveBalanceException(customer.getId(), order.getId());
         }
     }
 
     public void validateReservationConfirmation(@NonNull Customer customer, @NonNull Order order) {
         if (customer.getBalanceReserved() < order.getTotalPrice()) {
-            throw new InsufficientReserveBalanceException(
-                    "Customer with id = " + customer.getId() + " has not enough reserved balance to refund for " +
-                            "order with id" + " =" + " " + order.getId());
+            throw new InsufficientReserveBalanceException(customer.getId(), order.getId());
         }
     }
 }
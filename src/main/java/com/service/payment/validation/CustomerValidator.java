@@ -1,33 +1,26 @@
 package com.service.payment.validation;
 
 import com.service.payment.entity.Customer;
-import com.service.payment.exception.EntityValidationException;
-import com.service.payment.exception.FieldViolation;
-import jakarta.validation.Validator;
+import lombok.NonNull;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
+/**
+ * Checks the constraints declared on {@link Customer} directly; messages and violations match the Jakarta validator.
+ */
 @Component
-public class CustomerValidator extends EntityValidator<Customer> {
-
-    public CustomerValidator(Validator validator) {
-        super(validator);
-    }
-
-    @Override
-    public void validate(Customer customer) {
-        List<FieldViolation> violations = new ArrayList<>();
-        try {
-            super.validate(customer);
-        } catch (EntityValidationException e) {
-            violations = e.getViolations();
-        }
-
-        if (!violations.isEmpty()) {
-            throw new EntityValidationException("Customer is not valid", violations);
-        }
+public class CustomerValidator {
 
+    public void validate(@NonNull Customer customer) {
+        new Violations(Customer.class.getSimpleName())
+                .notNull("name", customer.getName(), "Customer name must not be null")
+                .notBlank("name", customer.getName(), "Customer name must not be blank")
+                .notNull("balanceAvailable", customer.getBalanceAvailable(),
+                        "Customer balanceAvailable must not be null")
+                .positiveOrZero("balanceAvailable", customer.getBalanceAvailable(),
+                        "Customer balanceAvailable must be positive or zero")
+                .notNull("balanceReserved", customer.getBalanceReserved(), "Customer balanceReserved must not be null")
+                .positiveOrZero("balanceReserved", customer.getBalanceReserved(),
+                        "Customer balanceReserved must be positive or zero")
+                .throwIfAny("Customer is not valid");
     }
 }
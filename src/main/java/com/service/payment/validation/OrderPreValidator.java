@@ -0,0 +1,59 @@
+package com.service.payment.validation;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroProduct;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Structural checks of a consumed order, run before conversion so a malformed order is rejected without a transaction
+ * or a connection. Mirrors the constraints on {@link com.service.payment.model.Product} and guards the total price
+ * against overflow.
+ */
+@Component
+public class OrderPreValidator {
+
+    /**
+     * Returns the first problem found, or {@code null} when the order is well-formed.
+     */
+    public String findProblem(@NonNull AvroOrder avroOrder) {
+        if (!hasValidId(avroOrder)) {
+            return "Order id must be a UUID";
+        }
+        if (avroOrder.getCustomerId() == null) {
+            return "Customer id cannot be null";
+        }
+        AvroProduct product = avroOrder.getProduct();
+        if (product == null) {
+            return "Product cannot be null";
+        }
+        if (product.getQuantity() <= 0) {
+            return "Product quantity must be greater than 0";
+        }
+        if (product.getPrice() < 0) {
+            return "Price cannot be negative";
+        }
+        if (product.getPrice() > Long.MAX_VALUE / product.getQuantity()) {
+            return "Total price overflows";
+        }
+        return null;
+    }
+
+    /**
+     * Without a valid id the order cannot be answered, a malformed order is only rejected when this holds.
+     */
+    public boolean hasValidId(@NonNull AvroOrder avroOrder) {
+        if (avroOrder.getId() == null) {
+            return false;
+        }
+        try {
+            UUID.fromString(avroOrder.getId().toString());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.service.payment.validation;
+
+import com.service.payment.exception.EntityValidationException;
+import com.service.payment.exception.FieldViolation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Direct equivalents of the Jakarta constraints used on the entities and DTOs, collecting the same
+ * {@link FieldViolation} output as the Jakarta {@code Validator} without metadata lookups or reflection. The list is
+ * only allocated once a check fails.
+ */
+final class Violations {
+
+    private final String objectName;
+
+    private List<FieldViolation> violations;
+
+    Violations(String objectName) {
+        this.objectName = objectName;
+    }
+
+    Violations notNull(String field, Object value, String message) {
+        if (value == null) {
+            add(field, null, message);
+        }
+        return this;
+    }
+
+    Violations notBlank(String field, CharSequence value, String message) {
+        if (value == null || value.toString().trim().isEmpty()) {
+            add(field, value, message);
+        }
+        return this;
+    }
+
+    Violations positiveOrZero(String field, Long value, String message) {
+        if (value != null && value < 0) {
+            add(field, value, message);
+        }
+        return this;
+    }
+
+    void throwIfAny(String message) {
+        if (violations != null) {
+            throw new EntityValidationException(message, violations);
+        }
+    }
+
+    private void add(String field, Object rejectedValue, String message) {
+        if (violations == null) {
+            violations = new ArrayList<>(2);
+        }
+        violations.add(new FieldViolation(field, objectName, rejectedValue, message));
+    }
+
+}
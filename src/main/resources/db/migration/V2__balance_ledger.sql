@@ -0,0 +1,55 @@
+CREATE TABLE balance_ledger
+(
+    order_id        UUID                     NOT NULL,
+    movement        VARCHAR(16)              NOT NULL,
+    customer_id     BIGINT                   NOT NULL,
+    available_delta BIGINT                   NOT NULL,
+    reserved_delta  BIGINT                   NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT pk_balance_ledger PRIMARY KEY (order_id, movement)
+);
+
+-- Applies one balance movement of an order in a single call: the ledger row claims the (order, movement) pair, so a
+-- redelivered movement is reported as DUPLICATE, and the balances only change when neither becomes negative. A
+-- movement that is not applied leaves no ledger row, so a redelivery is evaluated again.
+CREATE FUNCTION apply_balance_movement(p_order_id UUID, p_movement VARCHAR, p_customer_id BIGINT,
+                                       p_available_delta BIGINT, p_reserved_delta BIGINT)
+    RETURNS TABLE
+            (
+                outcome                  VARCHAR,
+                result_balance_available BIGINT,
+                result_balance_reserved  BIGINT
+            )
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    INSERT INTO balance_ledger (order_id, movement, customer_id, available_delta, reserved_delta)
+    VALUES (p_order_id, p_movement, p_customer_id, p_available_delta, p_reserved_delta)
+    ON CONFLICT DO NOTHING;
+    IF NOT FOUND THEN
+        outcome := 'DUPLICATE';
+        RETURN NEXT;
+        RETURN;
+    END IF;
+
+    UPDATE customer c
+    SET balance_available = c.balance_available + p_available_delta,
+        balance_reserved  = c.balance_reserved + p_reserved_delta
+    WHERE c.id = p_customer_id
+      AND c.balance_available + p_available_delta >= 0
+      AND c.balance_reserved + p_reserved_delta >= 0
+    RETURNING c.balance_available, c.balance_reserved INTO result_balance_available, result_balance_reserved;
+    IF FOUND THEN
+        outcome := 'APPLIED';
+        RETURN NEXT;
+        RETURN;
+    END IF;
+
+    DELETE FROM balance_ledger l WHERE l.order_id = p_order_id AND l.movement = p_movement;
+    outcome := CASE
+                   WHEN EXISTS (SELECT 1 FROM customer c WHERE c.id = p_customer_id) THEN 'INSUFFICIENT_BALANCE'
+                   ELSE 'CUSTOMER_NOT_FOUND' END;
+    RETURN NEXT;
+END;
+$$;
@@ -0,0 +1,75 @@
+package com.service.payment.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MissingCustomerCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private MissingCustomerCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new MissingCustomerCache(true, 100, 5000, nanos::get);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void isKnownMissing_whenMissIsRecorded_returnTrueUntilTtlExpires() {
+        cache.recordMiss(1L, cache.token());
+
+        assertTrue(cache.isKnownMissing(1L));
+        assertFalse(cache.isKnownMissing(2L));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(5001));
+        assertFalse(cache.isKnownMissing(1L));
+    }
+
+    @Test
+    public void recordMiss_whenCustomerWasCreatedDuringLookup_doNotCache() {
+        long token = cache.token();
+        cache.invalidate(2L);
+
+        cache.recordMiss(1L, token);
+
+        assertFalse(cache.isKnownMissing(1L));
+    }
+
+    @Test
+    public void invalidate_whenTransactionIsActive_evictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(1L);
+        cache.recordMiss(1L, cache.token());
+        assertTrue(cache.isKnownMissing(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(cache.isKnownMissing(1L));
+    }
+
+    @Test
+    public void isKnownMissing_whenDisabled_returnFalse() {
+        MissingCustomerCache disabled = new MissingCustomerCache(false, 100, 5000, nanos::get);
+
+        disabled.recordMiss(1L, disabled.token());
+
+        assertFalse(disabled.isKnownMissing(1L));
+    }
+
+}
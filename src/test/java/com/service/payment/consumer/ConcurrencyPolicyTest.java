@@ -0,0 +1,58 @@
+package com.service.payment.consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConcurrencyPolicyTest {
+
+    private ConcurrencyPolicy policy;
+
+    @BeforeEach
+    public void setUp() {
+        this.policy = new ConcurrencyPolicy(1, 30000);
+    }
+
+    @Test
+    public void constructor_whenMinConcurrencyIsZero_throwIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyPolicy(0, 30000));
+    }
+
+    @Test
+    public void next_whenBacklogOutlastsDrainTarget_scaleUp() {
+        assertEquals(3, policy.next(2, 6, 20000, 5));
+    }
+
+    @Test
+    public void next_whenAtPartitionCap_keepConcurrency() {
+        assertEquals(6, policy.next(6, 6, 200000, 5));
+    }
+
+    @Test
+    public void next_whenAbovePartitionCap_scaleDownToCap() {
+        assertEquals(3, policy.next(5, 3, 0, 0));
+    }
+
+    @Test
+    public void next_whenBacklogDrainsEasilyWithOneLess_scaleDown() {
+        assertEquals(3, policy.next(4, 6, 1000, 5));
+    }
+
+    @Test
+    public void next_whenBacklogIsWithinHysteresisBand_keepConcurrency() {
+        assertEquals(4, policy.next(4, 6, 20000, 5));
+    }
+
+    @Test
+    public void next_whenNoLag_scaleDownToMinimum() {
+        assertEquals(1, policy.next(2, 6, 0, 0));
+        assertEquals(1, policy.next(1, 6, 0, 0));
+    }
+
+    @Test
+    public void next_whenLagButNoProcessingSample_keepConcurrency() {
+        assertEquals(2, policy.next(2, 6, 50000, 0));
+    }
+}
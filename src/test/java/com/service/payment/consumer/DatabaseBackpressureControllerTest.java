@@ -0,0 +1,129 @@
+package com.service.payment.consumer;
+
+import com.service.payment.dao.DatabaseCircuitBreaker;
+import com.service.payment.dao.DatabaseLane;
+import com.service.payment.dao.DatabaseLoad;
+import com.service.payment.dao.DatabaseLoadMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class DatabaseBackpressureControllerTest {
+
+    private static final DatabaseLoad HEALTHY = new DatabaseLoad(10, 5, 0, 2, 10);
+
+    private static final DatabaseLoad SLOW = new DatabaseLoad(10, 800, 0, 2, 10);
+
+    private static final DatabaseLoad SATURATED = new DatabaseLoad(10, 50, 3, 10, 10);
+
+    private DatabaseBackpressureController controller;
+
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+
+    @Mock
+    private DatabaseLoadMonitor loadMonitor;
+
+    @Mock
+    private DatabaseCircuitBreaker circuitBreaker;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.controller = new DatabaseBackpressureController(registry, loadMonitor, circuitBreaker, meterRegistry);
+        ReflectionTestUtils.setField(controller, "enabled", true);
+        ReflectionTestUtils.setField(controller, "latencyThresholdMs", 500.0);
+        ReflectionTestUtils.setField(controller, "recoveryLatencyMs", 200.0);
+        ReflectionTestUtils.setField(controller, "recoveryIntervals", 2);
+        controller.init();
+
+        when(registry.getListenerContainer(ListenerConcurrencyController.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+    }
+
+    @Test
+    public void check_whenPoolIsSaturated_pauseListener() {
+        when(loadMonitor.sample(DatabaseLane.ORDERS)).thenReturn(SATURATED);
+
+        controller.check();
+
+        verify(container).pause();
+        assertTrue(controller.isPaused());
+        assertEquals(1, meterRegistry.get(DatabaseBackpressureController.PAUSED_METRIC).gauge().value());
+    }
+
+    @Test
+    public void check_whenLatencyPassesThreshold_pauseListener() {
+        when(loadMonitor.sample(DatabaseLane.ORDERS)).thenReturn(SLOW);
+
+        controller.check();
+
+        verify(container).pause();
+    }
+
+    @Test
+    public void check_whenLoadIsHealthy_keepListenerRunning() {
+        when(loadMonitor.sample(DatabaseLane.ORDERS)).thenReturn(HEALTHY);
+
+        controller.check();
+
+        verify(container, never()).pause();
+        assertFalse(controller.isPaused());
+    }
+
+    @Test
+    public void check_whenLoadRecoversForEnoughIntervals_resumeListener() {
+        when(loadMonitor.sample(DatabaseLane.ORDERS)).thenReturn(SATURATED, HEALTHY, SLOW, HEALTHY, HEALTHY);
+
+        for (int i = 0; i < 4; i++) {
+            controller.check();
+        }
+        verify(container, never()).resume();
+
+        controller.check();
+        verify(container).resume();
+        assertFalse(controller.isPaused());
+    }
+
+    @Test
+    public void check_whenDisabled_neverPause() {
+        ReflectionTestUtils.setField(controller, "enabled", false);
+        when(loadMonitor.sample(DatabaseLane.ORDERS)).thenReturn(SATURATED);
+
+        controller.check();
+
+        verify(container, never()).pause();
+    }
+
+    @Test
+    public void check_whenCircuitBreakerRejectsCalls_pauseUntilOpenPeriodElapses() {
+        when(loadMonitor.sample(DatabaseLane.ORDERS)).thenReturn(HEALTHY);
+        when(circuitBreaker.isRejectingCalls()).thenReturn(true, true, true, false, false);
+
+        for (int i = 0; i < 3; i++) {
+            controller.check();
+        }
+        verify(container).pause();
+        verify(container, never()).resume();
+
+        controller.check();
+        controller.check();
+        verify(container).resume();
+    }
+}
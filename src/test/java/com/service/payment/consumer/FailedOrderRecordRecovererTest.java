@@ -0,0 +1,63 @@
+package com.service.payment.consumer;
+
+import com.service.payment.exception.OrderRecordFailedException;
+import com.service.payment.service.OrderProcessingService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class FailedOrderRecordRecovererTest {
+
+    private FailedOrderRecordRecoverer recoverer;
+
+    @Mock
+    private OrderProcessingService orderProcessingService;
+
+    @BeforeEach
+    public void setUp() {
+        this.recoverer = new FailedOrderRecordRecoverer(orderProcessingService);
+    }
+
+    @Test
+    public void accept_whenReportedRecordFailed_recoverIt() {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>("orders", 0, 5L, null, null);
+        Exception exception = new BatchListenerFailedException("Order processing failed",
+                new OrderRecordFailedException(new ConsumerRecord<>("orders", 0, 5L, null, null),
+                        new IllegalStateException()), record);
+
+        assertDoesNotThrow(() -> recoverer.accept(record, exception));
+
+        verifyNoInteractions(orderProcessingService);
+    }
+
+    @Test
+    public void accept_whenNoFailedRecordIsNamed_recoverReportedRecord() {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>("orders", 0, 5L, null, null);
+
+        assertDoesNotThrow(() -> recoverer.accept(record, new IllegalStateException()));
+
+        verifyNoInteractions(orderProcessingService);
+    }
+
+    @Test
+    public void accept_whenAnotherRecordFailed_skipItAndRedeliverReportedRecord() {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>("orders", 0, 5L, null, null);
+        ConsumerRecord<String, Object> failedRecord = new ConsumerRecord<>("orders", 0, 7L, null, null);
+        Exception exception = new BatchListenerFailedException("Order processing failed",
+                new OrderRecordFailedException(failedRecord, new IllegalStateException()), record);
+
+        assertThrows(KafkaException.class, () -> recoverer.accept(record, exception));
+
+        verify(orderProcessingService).skipOnRedelivery(failedRecord);
+    }
+}
@@ -4,9 +4,13 @@ import com.service.avro.model.AvroOrder;
 import com.service.avro.model.AvroOrderStatus;
 import com.service.avro.model.AvroProduct;
 import com.service.payment.container.SchemaRegistryContainer;
+import com.service.payment.converter.AvroOrderV2ToAvroOrderConverter;
+import com.service.payment.logging.LogSampler;
 import com.service.payment.service.OrderProcessingService;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -27,6 +31,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.testcontainers.containers.KafkaContainer;
@@ -37,7 +42,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -109,7 +114,7 @@ public class KafkaConsumerTest {
         producer.send(new ProducerRecord<>(topicName, avroOrder.getId().toString(), avroOrder));
 
         Thread.sleep(3000);
-        verify(orderProcessingService, times(1)).process(any());
+        verify(orderProcessingService, times(1)).process(anyList());
     }
 
     @TestConfiguration
@@ -155,6 +160,21 @@ public class KafkaConsumerTest {
             return Mockito.mock(OrderProcessingService.class);
         }
 
+        @Bean
+        public AvroOrderV2ToAvroOrderConverter avroOrderV2ToAvroOrderConverter() {
+            return new AvroOrderV2ToAvroOrderConverter();
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public LogSampler logSampler() {
+            return new LogSampler(new MockEnvironment());
+        }
+
         @Bean
         public ConcurrentKafkaListenerContainerFactory<String, AvroOrder> kafkaListenerContainerFactory() {
 
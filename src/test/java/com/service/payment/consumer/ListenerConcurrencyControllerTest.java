@@ -0,0 +1,134 @@
+package com.service.payment.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class ListenerConcurrencyControllerTest {
+
+    private ListenerConcurrencyController controller;
+
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+
+    @Mock
+    private ConcurrentMessageListenerContainer<Object, Object> container;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.controller = new ListenerConcurrencyController(registry, meterRegistry);
+        ReflectionTestUtils.setField(controller, "enabled", true);
+        ReflectionTestUtils.setField(controller, "minConcurrency", 1);
+        ReflectionTestUtils.setField(controller, "maxConcurrency", 8);
+        ReflectionTestUtils.setField(controller, "targetDrainMs", 30000L);
+        ReflectionTestUtils.setField(controller, "stableIntervals", 2);
+        controller.init();
+
+        when(registry.getListenerContainer(ListenerConcurrencyController.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+        when(container.getConcurrency()).thenReturn(1);
+        when(container.getAssignedPartitions()).thenReturn(
+                IntStream.range(0, 4).mapToObj(partition -> new TopicPartition("orders", partition)).toList());
+    }
+
+    private void givenLag(long lag) {
+        MetricName metricName = new MetricName("records-lag", "consumer-fetch-manager-metrics", "",
+                Map.of("topic", "orders", "partition", "0"));
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn((double) lag);
+        doReturn(Map.of("consumer-0", Map.of(metricName, metric))).when(container).metrics();
+    }
+
+    private void recordProcessing(int records, long millisEach) {
+        for (int i = 0; i < records; i++) {
+            meterRegistry.timer("spring.kafka.listener", "name", "orders-0").record(Duration.ofMillis(millisEach));
+            meterRegistry.counter(KafkaConsumer.RECORDS_METRIC).increment();
+        }
+    }
+
+    @Test
+    public void adjust_whenLagPersists_restartContainerWithHigherConcurrency() {
+        givenLag(100000);
+
+        recordProcessing(10, 5);
+        controller.adjust();
+        recordProcessing(10, 5);
+        controller.adjust();
+
+        InOrder inOrder = inOrder(container);
+        inOrder.verify(container).stop();
+        inOrder.verify(container).setConcurrency(2);
+        inOrder.verify(container).start();
+        assertEquals(2, meterRegistry.get(ListenerConcurrencyController.CONCURRENCY_METRIC).gauge().value());
+        assertEquals(1, meterRegistry.get(ListenerConcurrencyController.CONCURRENCY_CHANGES_METRIC)
+                .tag("direction", "up").counter().count());
+    }
+
+    @Test
+    public void adjust_whenLagIsLow_doNotRestart() {
+        givenLag(10);
+
+        recordProcessing(10, 5);
+        controller.adjust();
+        recordProcessing(10, 5);
+        controller.adjust();
+
+        verify(container, never()).stop();
+        assertEquals(1, meterRegistry.get(ListenerConcurrencyController.CONCURRENCY_METRIC).gauge().value());
+    }
+
+    @Test
+    public void adjust_whenConcurrencyExceedsAssignedPartitions_scaleDownToPartitionCount() {
+        givenLag(0);
+        when(container.getConcurrency()).thenReturn(4);
+        when(container.getAssignedPartitions()).thenReturn(List.of(new TopicPartition("orders", 0)));
+
+        controller.adjust();
+        controller.adjust();
+
+        verify(container).setConcurrency(1);
+    }
+
+    @Test
+    public void adjust_whenDisabled_onlyPublishConcurrency() {
+        ReflectionTestUtils.setField(controller, "enabled", false);
+        when(container.getConcurrency()).thenReturn(3);
+
+        controller.adjust();
+
+        verify(container, never()).stop();
+        assertEquals(3, meterRegistry.get(ListenerConcurrencyController.CONCURRENCY_METRIC).gauge().value());
+    }
+
+    @Test
+    public void adjust_whenContainerIsNotRunning_doNothing() {
+        when(container.isRunning()).thenReturn(false);
+
+        controller.adjust();
+
+        verify(container, never()).getConcurrency();
+    }
+}
@@ -0,0 +1,79 @@
+package com.service.payment.consumer;
+
+import com.service.payment.serialization.OrderHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderStatusRecordFilterStrategyTest {
+
+    private OrderStatusRecordFilterStrategy filterStrategy;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.filterStrategy = new OrderStatusRecordFilterStrategy(meterRegistry);
+    }
+
+    private static ConsumerRecord<Object, Object> getRecord(Object value, String status) {
+        ConsumerRecord<Object, Object> record = new ConsumerRecord<>("orders", 0, 0L, "key", value);
+        if (status != null) {
+            record.headers().add(OrderHeaders.STATUS, status.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    @Test
+    public void filter_whenValueIsNull_discardAndCountTombstone() {
+        assertTrue(filterStrategy.filter(getRecord(null, null)));
+
+        assertEquals(1, meterRegistry.counter(OrderStatusRecordFilterStrategy.DISCARDED_METRIC, "reason", "tombstone")
+                .count());
+    }
+
+    @Test
+    public void filter_whenValueFailedToDeserialize_discardAndCountUndecodable() {
+        ConsumerRecord<Object, Object> record = getRecord(null, "NEW");
+        record.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[]{1});
+
+        assertTrue(filterStrategy.filter(record));
+
+        assertEquals(1, meterRegistry.counter(OrderStatusRecordFilterStrategy.DISCARDED_METRIC, "reason", "undecodable")
+                .count());
+    }
+
+    @Test
+    public void filter_whenValueOfUnprocessableStatusIsNull_discardWithoutCounting() {
+        assertTrue(filterStrategy.filter(getRecord(null, "ACCEPT")));
+
+        assertTrue(meterRegistry.find(OrderStatusRecordFilterStrategy.DISCARDED_METRIC).counters().isEmpty());
+    }
+
+    @Test
+    public void filter_whenStatusHeaderIsMissing_keep() {
+        assertFalse(filterStrategy.filter(getRecord(new Object(), null)));
+    }
+
+    @Test
+    public void filter_whenStatusHeaderIsProcessable_keep() {
+        assertFalse(filterStrategy.filter(getRecord(new Object(), "NEW")));
+        assertFalse(filterStrategy.filter(getRecord(new Object(), "ROLLBACK")));
+        assertFalse(filterStrategy.filter(getRecord(new Object(), "CONFIRMATION")));
+    }
+
+    @Test
+    public void filter_whenStatusHeaderIsNotProcessable_discard() {
+        assertTrue(filterStrategy.filter(getRecord(new Object(), "ACCEPT")));
+        assertTrue(filterStrategy.filter(getRecord(new Object(), "REJECT")));
+    }
+}
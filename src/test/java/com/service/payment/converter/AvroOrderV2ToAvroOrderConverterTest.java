@@ -0,0 +1,50 @@
+package com.service.payment.converter;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import com.service.avro.model.AvroOrderV2;
+import com.service.avro.model.AvroProduct;
+import com.service.payment.utils.OrderIdUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvroOrderV2ToAvroOrderConverterTest {
+
+    private AvroOrderV2ToAvroOrderConverter converter;
+
+    @BeforeEach
+    public void setUp() {
+        converter = new AvroOrderV2ToAvroOrderConverter();
+    }
+
+    @ParameterizedTest
+    @NullSource
+    public void convert_whenOrderIsNull_throwIllegalArgumentException(AvroOrderV2 avroOrderV2) {
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(avroOrderV2));
+    }
+
+    @Test
+    public void convert_success() {
+        UUID id = UUID.randomUUID();
+        AvroProduct avroProduct = new AvroProduct(1L, 2, 100L);
+
+        AvroOrderV2 avroOrderV2 =
+                AvroOrderV2.newBuilder().setId(OrderIdUtils.toAvroOrderId(id)).setCustomerId(1L).setProduct(avroProduct)
+                        .setStatus(AvroOrderStatus.NEW).setSource("Source").build();
+
+        AvroOrder avroOrder = converter.convert(avroOrderV2);
+
+        assertNotNull(avroOrder);
+        assertEquals(id.toString(), avroOrder.getId().toString());
+        assertEquals(avroOrderV2.getCustomerId(), avroOrder.getCustomerId());
+        assertEquals(avroOrderV2.getStatus(), avroOrder.getStatus());
+        assertEquals(avroOrderV2.getSource(), avroOrder.getSource());
+        assertEquals(avroProduct, avroOrder.getProduct());
+    }
+}
@@ -0,0 +1,60 @@
+package com.service.payment.converter;
+
+import com.service.avro.model.AvroOrderV2;
+import com.service.avro.model.AvroProduct;
+import com.service.payment.model.Order;
+import com.service.payment.model.OrderStatus;
+import com.service.payment.model.Product;
+import com.service.payment.utils.OrderIdUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderToAvroOrderV2ConverterTest {
+
+    private OrderToAvroOrderV2Converter converter;
+
+    @BeforeEach
+    public void setUp() {
+        converter = new OrderToAvroOrderV2Converter();
+    }
+
+    @ParameterizedTest
+    @NullSource
+    public void convert_whenOrderIsNull_throwIllegalArgumentException(Order order) {
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(order));
+    }
+
+    @Test
+    public void convert_success() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setQuantity(2);
+        product.setPrice(100L);
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.ACCEPT);
+        order.setSource("Source");
+        order.setProduct(product);
+
+        AvroOrderV2 avroOrderV2 = converter.convert(order);
+
+        assertNotNull(avroOrderV2);
+        assertEquals(order.getId(), OrderIdUtils.toUuid(avroOrderV2.getId()));
+        assertEquals(order.getCustomerId(), avroOrderV2.getCustomerId());
+        assertEquals(order.getStatus().toString(), avroOrderV2.getStatus().toString());
+        assertEquals(order.getSource(), avroOrderV2.getSource());
+
+        AvroProduct avroProduct = avroOrderV2.getProduct();
+        assertEquals(product.getId(), avroProduct.getId());
+        assertEquals(product.getQuantity(), avroProduct.getQuantity());
+        assertEquals(product.getPrice(), avroProduct.getPrice());
+    }
+}
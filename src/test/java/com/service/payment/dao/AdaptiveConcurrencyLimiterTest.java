@@ -0,0 +1,121 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.TransientServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.limiter = new AdaptiveConcurrencyLimiter(meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+        ReflectionTestUtils.setField(limiter, "minLimit", 2);
+        ReflectionTestUtils.setField(limiter, "ordersMaxLimit", 16);
+        ReflectionTestUtils.setField(limiter, "apiMaxLimit", 3);
+        ReflectionTestUtils.setField(limiter, "tolerance", 1.5);
+        ReflectionTestUtils.setField(limiter, "smoothing", 1.0);
+        ReflectionTestUtils.setField(limiter, "windowSize", 4);
+        ReflectionTestUtils.setField(limiter, "acquireTimeoutMs", 10L);
+        limiter.init();
+    }
+
+    private void runWindow(int concurrency, long rttMillis) {
+        for (int i = 0; i < concurrency; i++) {
+            limiter.acquire(DatabaseLane.ORDERS);
+        }
+        for (int i = 0; i < concurrency; i++) {
+            limiter.release(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+        }
+    }
+
+    @Test
+    public void acquire_whenLimitIsReached_throwTransientServiceException() {
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire(DatabaseLane.ORDERS);
+        }
+
+        assertThrows(TransientServiceException.class, () -> limiter.acquire(DatabaseLane.ORDERS));
+        assertEquals(4, meterRegistry.get(AdaptiveConcurrencyLimiter.IN_FLIGHT_METRIC).tag("lane", "orders").gauge()
+                .value());
+    }
+
+    @Test
+    public void release_whenLatencyStaysFlatUnderLoad_growLimit() {
+        runWindow(4, 5);
+        runWindow(4, 5);
+
+        assertTrue(limiter.getLimit(DatabaseLane.ORDERS) > 4);
+        assertEquals(limiter.getLimit(DatabaseLane.ORDERS),
+                meterRegistry.get(AdaptiveConcurrencyLimiter.LIMIT_METRIC).tag("lane", "orders").gauge().value());
+    }
+
+    @Test
+    public void release_whenCallersUseLittleOfTheLimit_doNotGrow() {
+        for (int i = 0; i < 8; i++) {
+            limiter.acquire(DatabaseLane.ORDERS);
+            limiter.release(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(5), false);
+        }
+
+        assertEquals(4, limiter.getLimit(DatabaseLane.ORDERS));
+    }
+
+    @Test
+    public void release_whenLatencyRisesAboveTolerance_shrinkLimit() {
+        runWindow(4, 5);
+        double grown = limiter.getLimit(DatabaseLane.ORDERS);
+
+        runWindow(4, 50);
+
+        assertTrue(limiter.getLimit(DatabaseLane.ORDERS) < grown);
+    }
+
+    @Test
+    public void release_whenCallIsDropped_backOffLimit() {
+        limiter.acquire(DatabaseLane.ORDERS);
+
+        limiter.release(DatabaseLane.ORDERS, 0, true);
+
+        assertEquals(3.6, limiter.getLimit(DatabaseLane.ORDERS), 0.001);
+        assertEquals(0, limiter.getInFlight(DatabaseLane.ORDERS));
+    }
+
+    @Test
+    public void acquire_whenOtherLaneIsFull_allowCall() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(DatabaseLane.API);
+        }
+        assertThrows(TransientServiceException.class, () -> limiter.acquire(DatabaseLane.API));
+
+        assertDoesNotThrow(() -> limiter.acquire(DatabaseLane.ORDERS));
+    }
+
+    @Test
+    public void acquire_whenAdaptationIsDisabled_limitToPoolSize() {
+        AdaptiveConcurrencyLimiter fixedLimiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fixedLimiter, "ordersMaxLimit", 16);
+        ReflectionTestUtils.setField(fixedLimiter, "apiMaxLimit", 3);
+        ReflectionTestUtils.setField(fixedLimiter, "minLimit", 2);
+        fixedLimiter.init();
+
+        assertEquals(16, fixedLimiter.getLimit(DatabaseLane.ORDERS));
+        for (int i = 0; i < 8; i++) {
+            fixedLimiter.acquire(DatabaseLane.ORDERS);
+            fixedLimiter.release(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(500), false);
+        }
+        assertEquals(16, fixedLimiter.getLimit(DatabaseLane.ORDERS));
+    }
+}
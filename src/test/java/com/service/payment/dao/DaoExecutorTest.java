@@ -0,0 +1,108 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.DatabaseUnavailableException;
+import com.service.payment.exception.ServiceException;
+import com.service.payment.exception.TransientServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class DaoExecutorTest {
+
+    private DaoExecutor daoExecutor;
+
+    @Mock
+    private DatabaseLoadMonitor loadMonitor;
+
+    @Mock
+    private DatabaseCircuitBreaker circuitBreaker;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        this.daoExecutor = new DaoExecutor(loadMonitor, circuitBreaker, concurrencyLimiter);
+    }
+
+    @Test
+    public void execute_whenSupplierSucceeds_returnResultAndRecordLatency() {
+        assertEquals(1L, daoExecutor.execute(() -> 1L));
+
+        verify(loadMonitor).record(eq(DatabaseLane.API), anyLong());
+        verify(circuitBreaker).acquirePermission();
+        verify(circuitBreaker).onSuccess();
+        verify(concurrencyLimiter).acquire(DatabaseLane.API);
+        verify(concurrencyLimiter).release(eq(DatabaseLane.API), anyLong(), eq(false));
+    }
+
+    @Test
+    public void execute_whenTransientDataAccessExceptionIsThrown_throwTransientServiceExceptionAndRecordLatency() {
+        TransientServiceException e = assertThrows(TransientServiceException.class, () -> daoExecutor.execute(() -> {
+            throw new QueryTimeoutException("timeout");
+        }));
+
+        assertInstanceOf(QueryTimeoutException.class, e.getCause());
+        verify(loadMonitor).record(eq(DatabaseLane.API), anyLong());
+        verify(circuitBreaker).onTransientFailure();
+        verify(concurrencyLimiter).release(eq(DatabaseLane.API), anyLong(), eq(true));
+    }
+
+    @Test
+    public void execute_whenConcurrencyLimitIsReached_releaseBreakerPermission() {
+        doThrow(new TransientServiceException("limit")).when(concurrencyLimiter).acquire(any());
+
+        assertThrows(TransientServiceException.class, () -> daoExecutor.execute(() -> 1L));
+
+        verify(circuitBreaker).releasePermission();
+        verify(concurrencyLimiter, never()).release(any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void execute_whenNonTransientDataAccessExceptionIsThrown_throwServiceException() {
+        ServiceException e = assertThrows(ServiceException.class, () -> daoExecutor.execute(() -> {
+            throw new DataIntegrityViolationException("duplicate");
+        }));
+
+        assertFalse(e instanceof TransientServiceException);
+        assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+        verify(circuitBreaker).onSuccess();
+    }
+
+    @Test
+    public void execute_whenCircuitBreakerRejects_failFastWithoutCallingSupplier() {
+        doThrow(new DatabaseUnavailableException("open")).when(circuitBreaker).acquirePermission();
+        DaoExecutor.DaoSupplier<Long> supplier = mock(DaoExecutor.DaoSupplier.class);
+
+        assertThrows(DatabaseUnavailableException.class, () -> daoExecutor.execute(supplier));
+
+        verifyNoInteractions(supplier, loadMonitor);
+    }
+
+    @Test
+    public void execute_whenServiceExceptionIsThrown_propagateAsIs() {
+        ServiceException exception = new ServiceException("business");
+
+        assertSame(exception, assertThrows(ServiceException.class, () -> daoExecutor.execute(() -> {
+            throw exception;
+        })));
+    }
+
+    @Test
+    public void execute_whenRunInOrdersLane_useOrdersLimit() {
+        DatabaseLane.ORDERS.run(() -> daoExecutor.execute(() -> 1L));
+
+        verify(concurrencyLimiter).acquire(DatabaseLane.ORDERS);
+        verify(concurrencyLimiter).release(eq(DatabaseLane.ORDERS), anyLong(), eq(false));
+        assertEquals(DatabaseLane.API, DatabaseLane.current());
+    }
+}
@@ -0,0 +1,36 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.InsufficientAvailableBalanceException;
+import com.service.payment.exception.ServiceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataAccessFailuresTest {
+
+    @Test
+    public void isTransient_whenConnectionOrLockFailure_returnTrue() {
+        assertTrue(DataAccessFailures.isTransient(new CannotGetJdbcConnectionException("no connection")));
+        assertTrue(DataAccessFailures.isTransient(new CannotAcquireLockException("lock timeout")));
+        assertTrue(DataAccessFailures.isTransient(new CannotCreateTransactionException("no transaction")));
+    }
+
+    @Test
+    public void isTransient_whenTransientFailureIsWrapped_returnTrue() {
+        assertTrue(DataAccessFailures.isTransient(new ListenerExecutionFailedException("listener failed",
+                new ServiceException("DAO operation failed", new CannotAcquireLockException("lock timeout")))));
+    }
+
+    @Test
+    public void isTransient_whenBusinessOrConstraintFailure_returnFalse() {
+        assertFalse(DataAccessFailures.isTransient(new InsufficientAvailableBalanceException("insufficient")));
+        assertFalse(DataAccessFailures.isTransient(new DataIntegrityViolationException("duplicate")));
+        assertFalse(DataAccessFailures.isTransient(null));
+    }
+}
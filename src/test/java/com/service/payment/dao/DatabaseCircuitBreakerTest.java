@@ -0,0 +1,105 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseCircuitBreakerTest {
+
+    private DatabaseCircuitBreaker circuitBreaker;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.circuitBreaker = new DatabaseCircuitBreaker(meterRegistry);
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", true);
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 60000L);
+        circuitBreaker.init();
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.acquirePermission();
+            circuitBreaker.onTransientFailure();
+        }
+    }
+
+    @Test
+    public void acquirePermission_whenFailuresBelowThreshold_allowCalls() {
+        fail(2);
+
+        assertDoesNotThrow(() -> circuitBreaker.acquirePermission());
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void acquirePermission_whenSuccessResetsFailures_stayClosed() {
+        fail(2);
+        circuitBreaker.onSuccess();
+        fail(2);
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void acquirePermission_whenThresholdReached_failFast() {
+        fail(3);
+
+        assertThrows(DatabaseUnavailableException.class, () -> circuitBreaker.acquirePermission());
+        assertTrue(circuitBreaker.isRejectingCalls());
+        assertEquals(1, meterRegistry.get(DatabaseCircuitBreaker.STATE_METRIC).gauge().value());
+    }
+
+    @Test
+    public void acquirePermission_whenOpenPeriodElapsed_allowSingleProbe() {
+        fail(3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+
+        assertFalse(circuitBreaker.isRejectingCalls());
+        circuitBreaker.acquirePermission();
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertThrows(DatabaseUnavailableException.class, () -> circuitBreaker.acquirePermission());
+    }
+
+    @Test
+    public void onSuccess_whenProbeSucceeds_close() {
+        fail(3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        circuitBreaker.acquirePermission();
+
+        circuitBreaker.onSuccess();
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertDoesNotThrow(() -> circuitBreaker.acquirePermission());
+    }
+
+    @Test
+    public void onTransientFailure_whenProbeFails_reopen() {
+        fail(3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        circuitBreaker.acquirePermission();
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 60000L);
+
+        circuitBreaker.onTransientFailure();
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(DatabaseUnavailableException.class, () -> circuitBreaker.acquirePermission());
+    }
+
+    @Test
+    public void acquirePermission_whenDisabled_neverReject() {
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", false);
+
+        fail(10);
+
+        assertDoesNotThrow(() -> circuitBreaker.acquirePermission());
+    }
+}
@@ -0,0 +1,67 @@
+package com.service.payment.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+public class DatabaseLoadMonitorTest {
+
+    private DatabaseLoadMonitor monitor;
+
+    @Mock
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        this.monitor = new DatabaseLoadMonitor(dataSource);
+    }
+
+    @Test
+    public void sample_whenCallsWereRecorded_returnAverageLatency() {
+        monitor.record(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(10));
+        monitor.record(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(30));
+
+        DatabaseLoad load = monitor.sample(DatabaseLane.ORDERS);
+
+        assertEquals(2, load.calls());
+        assertEquals(20.0, load.averageLatencyMs(), 0.001);
+        assertFalse(load.poolSaturated());
+    }
+
+    @Test
+    public void sample_whenCalledTwice_startNewWindow() {
+        monitor.record(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(10));
+        monitor.sample(DatabaseLane.ORDERS);
+
+        DatabaseLoad load = monitor.sample(DatabaseLane.ORDERS);
+
+        assertEquals(0, load.calls());
+        assertEquals(0.0, load.averageLatencyMs());
+    }
+
+    @Test
+    public void sample_whenOtherLaneIsSlow_ignoreItsLatency() {
+        monitor.record(DatabaseLane.API, TimeUnit.SECONDS.toNanos(5));
+        monitor.record(DatabaseLane.ORDERS, TimeUnit.MILLISECONDS.toNanos(10));
+
+        DatabaseLoad load = monitor.sample(DatabaseLane.ORDERS);
+
+        assertEquals(1, load.calls());
+        assertEquals(10.0, load.averageLatencyMs(), 0.001);
+    }
+
+    @Test
+    public void poolSaturated_whenThreadsAwaitConnection_returnTrue() {
+        assertTrue(new DatabaseLoad(1, 1, 2, 5, 10).poolSaturated());
+        assertTrue(new DatabaseLoad(1, 1, 0, 10, 10).poolSaturated());
+        assertFalse(new DatabaseLoad(1, 1, 0, 9, 10).poolSaturated());
+    }
+}
@@ -0,0 +1,72 @@
+package com.service.payment.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class LaneRoutingDataSourceTest {
+
+    private LaneRoutingDataSource dataSource;
+
+    @Mock
+    private HikariDataSource ordersPool;
+
+    @Mock
+    private HikariDataSource apiPool;
+
+    @Mock
+    private Connection ordersConnection;
+
+    @Mock
+    private Connection apiConnection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(ordersPool.getConnection()).thenReturn(ordersConnection);
+        when(apiPool.getConnection()).thenReturn(apiConnection);
+        this.dataSource = new LaneRoutingDataSource(Map.of(DatabaseLane.ORDERS, ordersPool, DatabaseLane.API, apiPool));
+    }
+
+    @Test
+    public void constructor_whenLaneHasNoPool_throwIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LaneRoutingDataSource(Map.of(DatabaseLane.API, apiPool)));
+    }
+
+    @Test
+    public void getConnection_whenNoLaneIsSet_useApiPool() throws SQLException {
+        assertSame(apiConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void getConnection_whenRunInOrdersLane_useOrdersPool() {
+        DatabaseLane.ORDERS.run(() -> {
+            try {
+                assertSame(ordersConnection, dataSource.getConnection());
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+
+        assertEquals(DatabaseLane.API, DatabaseLane.current());
+    }
+
+    @Test
+    public void close_closeEveryPool() {
+        dataSource.close();
+
+        verify(ordersPool).close();
+        verify(apiPool).close();
+    }
+}
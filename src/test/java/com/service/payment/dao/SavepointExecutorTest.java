@@ -0,0 +1,77 @@
+package com.service.payment.dao;
+
+import com.service.payment.exception.ServiceException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class SavepointExecutorTest {
+
+    private SavepointExecutor savepointExecutor;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Savepoint savepoint;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DaoExecutor daoExecutor = new DaoExecutor(mock(DatabaseLoadMonitor.class), mock(DatabaseCircuitBreaker.class),
+                mock(AdaptiveConcurrencyLimiter.class));
+        this.savepointExecutor = new SavepointExecutor(daoExecutor);
+        ReflectionTestUtils.setField(savepointExecutor, "entityManager", entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(
+                invocation -> invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        when(connection.setSavepoint()).thenReturn(savepoint);
+    }
+
+    @Test
+    public void run_whenOperationSucceeds_releaseSavepoint() throws Exception {
+        savepointExecutor.run(() -> assertTrue(SavepointExecutor.isActive()));
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setSavepoint();
+        inOrder.verify(connection).releaseSavepoint(savepoint);
+        verify(connection, never()).rollback(any(Savepoint.class));
+        verify(entityManager, never()).clear();
+        assertFalse(SavepointExecutor.isActive());
+    }
+
+    @Test
+    public void run_whenOperationFails_rollbackToSavepointClearContextAndRethrow() throws Exception {
+        ServiceException failure = new ServiceException("DAO operation failed");
+
+        ServiceException e = assertThrows(ServiceException.class, () -> savepointExecutor.run(() -> {
+            throw failure;
+        }));
+
+        assertSame(failure, e);
+        verify(connection).rollback(savepoint);
+        verify(connection, never()).releaseSavepoint(any());
+        verify(entityManager).clear();
+        assertFalse(SavepointExecutor.isActive());
+    }
+}
@@ -0,0 +1,131 @@
+package com.service.payment.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private AuditJournal journal;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void record_whenNoTransactionIsActive_appendImmediately() throws IOException {
+        journal = openJournal(4096, 4);
+        JournalEntry entry = entry(JournalEntryType.RESERVATION_CREATED, 1);
+
+        journal.record(entry);
+
+        assertEquals(List.of(entry), replay());
+    }
+
+    @Test
+    public void record_whenTransactionIsActive_appendAfterCommit() throws IOException {
+        journal = openJournal(4096, 4);
+        JournalEntry entry = entry(JournalEntryType.RESERVATION_CONFIRMED, 1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        journal.record(entry);
+
+        assertTrue(replay().isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(entry), replay());
+    }
+
+    @Test
+    public void record_whenSegmentIsFull_rollAndDeleteSegmentsBeyondRetention() throws IOException {
+        int entriesPerSegment = 2;
+        journal = openJournal(JournalSegment.HEADER_SIZE + entriesPerSegment * JournalEntry.SIZE, 2);
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            entries.add(entry(JournalEntryType.RESERVATION_ROLLED_BACK, i));
+            journal.record(entries.get(i));
+        }
+
+        assertEquals(2, JournalReader.segments(directory).size());
+        assertEquals(entries.subList(4, 7), replay());
+    }
+
+    @Test
+    public void open_whenSegmentsExist_continueAfterLastEntry() throws IOException {
+        journal = openJournal(4096, 4);
+        JournalEntry first = entry(JournalEntryType.RESERVATION_CREATED, 1);
+        journal.record(first);
+        journal.close();
+
+        journal = openJournal(4096, 4);
+        JournalEntry second = entry(JournalEntryType.RESERVATION_CONFIRMED, 2);
+        journal.record(second);
+
+        assertEquals(List.of(first, second), replay());
+    }
+
+    @Test
+    public void record_whenDisabled_doNothing() throws IOException {
+        journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "enabled", false);
+        journal.open();
+
+        journal.record(entry(JournalEntryType.RESERVATION_CREATED, 1));
+
+        assertTrue(JournalReader.segments(directory).isEmpty());
+    }
+
+    @Test
+    public void open_whenSegmentSizeCannotHoldAnEntry_throwIllegalArgumentException() {
+        AuditJournal tooSmall = journal(JournalEntry.SIZE, 4);
+
+        assertThrows(IllegalArgumentException.class, tooSmall::open);
+    }
+
+    private AuditJournal openJournal(int segmentSize, int maxSegments) throws IOException {
+        AuditJournal opened = journal(segmentSize, maxSegments);
+        opened.open();
+        return opened;
+    }
+
+    private AuditJournal journal(int segmentSize, int maxSegments) {
+        AuditJournal created = new AuditJournal();
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "directory", directory.toString());
+        ReflectionTestUtils.setField(created, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(created, "maxSegments", maxSegments);
+        return created;
+    }
+
+    private List<JournalEntry> replay() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.replay(directory, entries::add);
+        return entries;
+    }
+
+    private static JournalEntry entry(JournalEntryType type, long customerId) {
+        return new JournalEntry(type, 1_700_000_000_000L, customerId, UUID.randomUUID(), 100L, 900L, 100L);
+    }
+
+}
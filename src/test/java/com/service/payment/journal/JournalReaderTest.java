@@ -0,0 +1,69 @@
+package com.service.payment.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalReaderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void replay_whenDirectoryDoesNotExist_replayNothing() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+
+        JournalReader.replay(directory.resolve("missing"), entries::add);
+
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    public void replay_whenLastEntryIsTorn_stopBeforeIt() throws IOException {
+        JournalEntry entry = new JournalEntry(JournalEntryType.RESERVATION_CREATED, 1L, 2L, UUID.randomUUID(), 3L,
+                4L, 5L);
+        ByteBuffer buffer = ByteBuffer.allocate(JournalSegment.HEADER_SIZE + 2 * JournalEntry.SIZE)
+                .putInt(JournalSegment.MAGIC);
+        entry.writeTo(buffer);
+        entry.writeTo(buffer);
+        buffer.put(buffer.capacity() - 1, (byte) (buffer.get(buffer.capacity() - 1) + 1));
+        Files.write(JournalReader.segmentPath(directory, 0), buffer.array());
+
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.replay(directory, entries::add);
+
+        assertEquals(List.of(entry), entries);
+    }
+
+    @Test
+    public void replay_whenOrderIdIsMissing_replayNilOrderId() throws IOException {
+        try (JournalSegment segment = JournalSegment.open(JournalReader.segmentPath(directory, 0), 1024)) {
+            segment.append(new JournalEntry(JournalEntryType.RESERVATION_CONFIRMED, 1L, 2L, null, 3L, 4L, 5L));
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.replay(directory, entries::add);
+
+        assertEquals(JournalEntry.NIL_ORDER_ID, entries.get(0).orderId());
+    }
+
+    @Test
+    public void replay_whenFileIsNotASegment_throwIOException() throws IOException {
+        Files.write(JournalReader.segmentPath(directory, 0), new byte[]{1, 2, 3, 4, 5});
+
+        assertThrows(IOException.class, () -> JournalReader.replay(directory, entry -> {
+        }));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.service.payment.logging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogSamplerTest {
+
+    @Test
+    public void sample_whenNoRateIsConfigured_alwaysSample() {
+        LogSampler sampler = new LogSampler(new MockEnvironment());
+
+        assertTrue(IntStream.range(0, 100).allMatch(i -> sampler.sample(LogSampler.ORDER_RECEIVED)));
+    }
+
+    @Test
+    public void sample_whenEventRateIsZero_neverSample() {
+        LogSampler sampler = new LogSampler(
+                new MockEnvironment().withProperty("payment.logging.sampling.order-received", "0"));
+
+        assertTrue(IntStream.range(0, 100).noneMatch(i -> sampler.sample(LogSampler.ORDER_RECEIVED)));
+        assertTrue(sampler.sample(LogSampler.ORDER_PRODUCED));
+    }
+
+    @Test
+    public void sample_whenDefaultRateIsZero_useEventRateOverride() {
+        LogSampler sampler = new LogSampler(new MockEnvironment()
+                .withProperty("payment.logging.sampling.default-rate", "0")
+                .withProperty("payment.logging.sampling.order-produced", "1"));
+
+        assertFalse(sampler.sample(LogSampler.ORDER_RECEIVED));
+        assertTrue(sampler.sample(LogSampler.ORDER_PRODUCED));
+    }
+
+    @Test
+    public void sample_whenRateIsFractional_sampleRoughlyThatShare() {
+        LogSampler sampler = new LogSampler(
+                new MockEnvironment().withProperty("payment.logging.sampling.default-rate", "0.5"));
+
+        long sampled = IntStream.range(0, 10_000).filter(i -> sampler.sample(LogSampler.ORDER_RECEIVED)).count();
+
+        assertTrue(sampled > 4_000 && sampled < 6_000);
+    }
+
+    @Test
+    public void sample_whenEventIsNull_throwIllegalArgumentException() {
+        LogSampler sampler = new LogSampler(new MockEnvironment());
+
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(null));
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.service.payment.producer;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class AdaptiveBatchingControllerTest {
+
+    private AdaptiveBatchingController controller;
+
+    @Mock
+    private ProducerFactory<String, Object> producerFactory;
+
+    @Mock
+    private KafkaTemplate<String, Object> template;
+
+    @BeforeEach
+    public void setUp() {
+        when(producerFactory.getConfigurationProperties()).thenReturn(
+                Map.of(ProducerConfig.LINGER_MS_CONFIG, 20, ProducerConfig.BATCH_SIZE_CONFIG, 65536));
+        this.controller = new AdaptiveBatchingController(producerFactory, template);
+        ReflectionTestUtils.setField(controller, "enabled", true);
+        ReflectionTestUtils.setField(controller, "maxLatencyMs", 50);
+        ReflectionTestUtils.setField(controller, "minLingerMs", 0);
+        ReflectionTestUtils.setField(controller, "maxLingerMs", 20);
+        ReflectionTestUtils.setField(controller, "minBatchSize", 16384);
+        ReflectionTestUtils.setField(controller, "maxBatchSize", 262144);
+        ReflectionTestUtils.setField(controller, "stableIntervals", 2);
+        controller.init();
+    }
+
+    private static Map<MetricName, Metric> metrics(double sendRate, double batchSizeAvg, double queueTime,
+                                                   double requestLatency) {
+        Map<MetricName, Metric> metrics = new HashMap<>();
+        put(metrics, "record-send-rate", sendRate);
+        put(metrics, "batch-size-avg", batchSizeAvg);
+        put(metrics, "record-queue-time-avg", queueTime);
+        put(metrics, "request-latency-avg", requestLatency);
+        return metrics;
+    }
+
+    private static void put(Map<MetricName, Metric> metrics, String name, double value) {
+        MetricName metricName = new MetricName(name, "producer-metrics", "", Map.of());
+        Metric metric = mock(Metric.class);
+        when(metric.metricName()).thenReturn(metricName);
+        when(metric.metricValue()).thenReturn(value);
+        metrics.put(metricName, metric);
+    }
+
+    @Test
+    public void adjust_whenDecisionIsNotStableYet_doNotReconfigure() {
+        doReturn(metrics(5000, 20000, 40, 30)).when(template).metrics();
+
+        controller.adjust();
+
+        verify(producerFactory, never()).reset();
+        assertEquals(new BatchingSettings(20, 65536), controller.getCurrent());
+    }
+
+    @Test
+    public void adjust_whenDecisionIsStable_updateConfigsAndResetProducer() {
+        doReturn(metrics(5000, 20000, 40, 30)).when(template).metrics();
+
+        controller.adjust();
+        controller.adjust();
+
+        verify(producerFactory).updateConfigs(
+                Map.of(ProducerConfig.LINGER_MS_CONFIG, 10, ProducerConfig.BATCH_SIZE_CONFIG, 65536));
+        verify(producerFactory).reset();
+        assertEquals(new BatchingSettings(10, 65536), controller.getCurrent());
+    }
+
+    @Test
+    public void adjust_whenDecisionFlips_restartStabilityCount() {
+        doReturn(metrics(5000, 20000, 40, 30)).when(template).metrics();
+        controller.adjust();
+        doReturn(metrics(5000, 30000, 5, 10)).when(template).metrics();
+        controller.adjust();
+        doReturn(metrics(5000, 20000, 40, 30)).when(template).metrics();
+        controller.adjust();
+
+        verify(producerFactory, never()).reset();
+    }
+
+    @Test
+    public void adjust_whenDisabled_doNothing() {
+        ReflectionTestUtils.setField(controller, "enabled", false);
+
+        controller.adjust();
+
+        verifyNoInteractions(template);
+        verify(producerFactory, never()).updateConfigs(any());
+    }
+
+    @Test
+    public void guardSend_runSend() {
+        Runnable send = mock(Runnable.class);
+
+        controller.guardSend(send);
+
+        verify(send).run();
+    }
+}
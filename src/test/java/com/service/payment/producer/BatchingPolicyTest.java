@@ -0,0 +1,85 @@
+package com.service.payment.producer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchingPolicyTest {
+
+    private BatchingPolicy policy;
+
+    @BeforeEach
+    public void setUp() {
+        this.policy = new BatchingPolicy(50, 0, 20, 16384, 262144);
+    }
+
+    @Test
+    public void constructor_whenBoundsAreInverted_throwIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchingPolicy(50, 10, 5, 16384, 262144));
+        assertThrows(IllegalArgumentException.class, () -> new BatchingPolicy(50, 0, 20, 262144, 16384));
+    }
+
+    @Test
+    public void clamp_whenLingerExceedsLatencyBudget_capAtBudget() {
+        BatchingPolicy tightPolicy = new BatchingPolicy(10, 0, 20, 16384, 262144);
+
+        assertEquals(new BatchingSettings(10, 16384), tightPolicy.clamp(new BatchingSettings(100, 1024)));
+    }
+
+    @Test
+    public void next_whenLatencyAboveBudget_halveLinger() {
+        BatchingSettings next = policy.next(new BatchingSettings(20, 65536),
+                new ProducerSample(5000, 20000, 40, 30));
+
+        assertEquals(new BatchingSettings(10, 65536), next);
+    }
+
+    @Test
+    public void next_whenBatchesAreFull_doubleBatchSize() {
+        BatchingSettings next = policy.next(new BatchingSettings(5, 65536),
+                new ProducerSample(20000, 60000, 5, 10));
+
+        assertEquals(new BatchingSettings(5, 131072), next);
+    }
+
+    @Test
+    public void next_whenBatchSizeAtMaximum_keepSettings() {
+        BatchingSettings next = policy.next(new BatchingSettings(5, 262144),
+                new ProducerSample(50000, 250000, 5, 10));
+
+        assertEquals(new BatchingSettings(5, 262144), next);
+    }
+
+    @Test
+    public void next_whenTrafficIsQuiet_shrinkLingerAndBatchSize() {
+        BatchingSettings next = policy.next(new BatchingSettings(20, 65536),
+                new ProducerSample(2, 300, 20, 5));
+
+        assertEquals(new BatchingSettings(10, 32768), next);
+    }
+
+    @Test
+    public void next_whenBatchesAreSparseWithLatencyHeadroom_growLinger() {
+        BatchingSettings next = policy.next(new BatchingSettings(2, 65536),
+                new ProducerSample(5000, 4000, 2, 5));
+
+        assertEquals(new BatchingSettings(4, 65536), next);
+    }
+
+    @Test
+    public void next_whenLingerIsZeroWithHeadroom_startLingering() {
+        BatchingSettings next = policy.next(new BatchingSettings(0, 16384),
+                new ProducerSample(5000, 500, 0, 5));
+
+        assertEquals(new BatchingSettings(1, 16384), next);
+    }
+
+    @Test
+    public void next_whenFillRatioIsModerate_keepSettings() {
+        BatchingSettings current = new BatchingSettings(5, 65536);
+
+        assertEquals(current, policy.next(current, new ProducerSample(5000, 30000, 5, 10)));
+    }
+}
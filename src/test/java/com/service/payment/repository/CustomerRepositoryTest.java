@@ -14,6 +14,9 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -120,4 +123,58 @@ public class CustomerRepositoryTest {
         assertNull(customerFromDb);
         assertEquals(0, customerRepository.findAll().size());
     }
+
+    @Test
+    public void applyMovements_success() {
+        Customer customer = persistCustomer(150L, 0L);
+        long missingCustomerId = customer.getId() + 1;
+        entityManager.flush();
+
+        List<BalanceMovementResult> results = customerRepository.applyMovements(List.of(
+                new BalanceMovement(customer.getId(), -100L, 100L),
+                new BalanceMovement(missingCustomerId, -100L, 100L),
+                new BalanceMovement(customer.getId(), -100L, 100L),
+                new BalanceMovement(customer.getId(), 0L, -100L)));
+        entityManager.clear();
+
+        assertEquals(new BalanceMovementResult(true, true, 50L, 100L), results.get(0));
+        assertEquals(new BalanceMovementResult(false, false, null, null), results.get(1));
+        assertEquals(new BalanceMovementResult(true, false, null, null), results.get(2));
+        assertEquals(new BalanceMovementResult(true, true, 50L, 0L), results.get(3));
+        Customer customerFromDb = entityManager.find(Customer.class, customer.getId());
+        assertEquals(50L, customerFromDb.getBalanceAvailable());
+        assertEquals(0L, customerFromDb.getBalanceReserved());
+    }
+
+    @Test
+    public void applyLedgerMovement_success() {
+        Customer customer = persistCustomer(150L, 0L);
+        UUID orderId = UUID.randomUUID();
+        BalanceMovement reservation = new BalanceMovement(customer.getId(), -100L, 100L);
+        entityManager.flush();
+
+        LedgerMovementResult applied = customerRepository.applyLedgerMovement(orderId, "NEW", reservation);
+        LedgerMovementResult duplicate = customerRepository.applyLedgerMovement(orderId, "NEW", reservation);
+        LedgerMovementResult insufficient =
+                customerRepository.applyLedgerMovement(UUID.randomUUID(), "NEW", reservation);
+        LedgerMovementResult missing = customerRepository.applyLedgerMovement(UUID.randomUUID(), "NEW",
+                new BalanceMovement(customer.getId() + 1, -100L, 100L));
+        entityManager.clear();
+
+        assertEquals(new LedgerMovementResult(LedgerMovementResult.Outcome.APPLIED, 50L, 100L), applied);
+        assertEquals(LedgerMovementResult.Outcome.DUPLICATE, duplicate.outcome());
+        assertEquals(LedgerMovementResult.Outcome.INSUFFICIENT_BALANCE, insufficient.outcome());
+        assertEquals(LedgerMovementResult.Outcome.CUSTOMER_NOT_FOUND, missing.outcome());
+        Customer customerFromDb = entityManager.find(Customer.class, customer.getId());
+        assertEquals(50L, customerFromDb.getBalanceAvailable());
+        assertEquals(100L, customerFromDb.getBalanceReserved());
+    }
+
+    private Customer persistCustomer(long balanceAvailable, long balanceReserved) {
+        Customer customer = new Customer();
+        customer.setName("test");
+        customer.setBalanceAvailable(balanceAvailable);
+        customer.setBalanceReserved(balanceReserved);
+        return entityManager.persist(customer);
+    }
 }
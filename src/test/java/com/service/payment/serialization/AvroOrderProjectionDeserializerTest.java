@@ -0,0 +1,159 @@
+package com.service.payment.serialization;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import com.service.avro.model.AvroOrderV2;
+import com.service.avro.model.AvroProduct;
+import com.service.payment.utils.OrderIdUtils;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class AvroOrderProjectionDeserializerTest {
+
+    private static final int SCHEMA_ID = 1;
+
+    private static final int COMPACT_SCHEMA_ID = 2;
+
+    private AvroOrderProjectionDeserializer deserializer;
+
+    @Mock
+    private SchemaRegistryClient schemaRegistryClient;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        when(schemaRegistryClient.getById(SCHEMA_ID)).thenReturn(AvroOrder.getClassSchema());
+        when(schemaRegistryClient.getById(COMPACT_SCHEMA_ID)).thenReturn(AvroOrderV2.getClassSchema());
+        this.deserializer = new AvroOrderProjectionDeserializer(schemaRegistryClient);
+    }
+
+    private static AvroOrder getAvroOrder() {
+        AvroProduct avroProduct = new AvroProduct();
+        avroProduct.setId(1L);
+        avroProduct.setQuantity(2);
+        avroProduct.setPrice(100L);
+
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId(UUID.randomUUID().toString());
+        avroOrder.setStatus(AvroOrderStatus.NEW);
+        avroOrder.setProduct(avroProduct);
+        avroOrder.setSource("Source");
+        avroOrder.setCustomerId(1L);
+        return avroOrder;
+    }
+
+    private static byte[] serialize(AvroOrder avroOrder) throws IOException {
+        return serialize(avroOrder, SCHEMA_ID);
+    }
+
+    private static byte[] serialize(SpecificRecord record, int schemaId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        out.write(ByteBuffer.allocate(4).putInt(schemaId).array());
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new SpecificDatumWriter<>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void deserialize_whenDataIsNull_returnNull() {
+        deserializer.configure(Map.of(), false);
+
+        assertNull(deserializer.deserialize("orders", null));
+    }
+
+    @Test
+    public void deserialize_whenStatusHeaderIsNotProcessable_returnNullWithoutDecoding() throws Exception {
+        deserializer.configure(Map.of(), false);
+        Headers headers = new RecordHeaders();
+        headers.add(OrderHeaders.STATUS, OrderHeaders.status(AvroOrderStatus.ACCEPT));
+
+        assertNull(deserializer.deserialize("orders", headers, serialize(getAvroOrder())));
+
+        verifyNoInteractions(schemaRegistryClient);
+    }
+
+    @Test
+    public void deserialize_whenMagicByteIsUnknown_throwSerializationException() {
+        deserializer.configure(Map.of(), false);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("orders", new byte[]{1, 0, 0, 0, 1}));
+    }
+
+    @Test
+    public void deserialize_success_decodeProcessingFieldsOnly() throws Exception {
+        deserializer.configure(Map.of(), false);
+        AvroOrder avroOrder = getAvroOrder();
+
+        AvroOrder result = (AvroOrder) deserializer.deserialize("orders", serialize(avroOrder));
+
+        assertEquals(avroOrder.getId(), result.getId());
+        assertEquals(avroOrder.getCustomerId(), result.getCustomerId());
+        assertEquals(avroOrder.getStatus(), result.getStatus());
+        assertEquals(avroOrder.getProduct(), result.getProduct());
+        assertNull(result.getSource());
+    }
+
+    @Test
+    public void deserialize_whenWriterSchemaIsCompact_decodeAvroOrderV2() throws Exception {
+        deserializer.configure(Map.of(), false);
+        AvroOrderV2 avroOrderV2 = AvroOrderV2.newBuilder().setId(OrderIdUtils.toAvroOrderId(UUID.randomUUID()))
+                .setCustomerId(1L).setProduct(new AvroProduct(1L, 2, 100L)).setStatus(AvroOrderStatus.NEW).build();
+
+        SpecificRecord result = deserializer.deserialize("orders", serialize(avroOrderV2, COMPACT_SCHEMA_ID));
+
+        assertEquals(avroOrderV2, result);
+    }
+
+    @Test
+    public void deserialize_whenCalledRepeatedly_lookupWriterSchemaOnce() throws Exception {
+        deserializer.configure(Map.of(), false);
+
+        deserializer.deserialize("orders", serialize(getAvroOrder()));
+        deserializer.deserialize("orders", serialize(getAvroOrder()));
+
+        verify(schemaRegistryClient, times(1)).getById(SCHEMA_ID);
+    }
+
+    @Test
+    public void deserialize_whenRetainRawValueEnabled_addRawValueHeader() throws Exception {
+        deserializer.configure(Map.of(AvroOrderProjectionDeserializer.RETAIN_RAW_VALUE_CONFIG, "true"), false);
+        byte[] data = serialize(getAvroOrder());
+        Headers headers = new RecordHeaders();
+
+        deserializer.deserialize("orders", headers, data);
+
+        assertArrayEquals(data, headers.lastHeader(OrderHeaders.RAW_VALUE).value());
+    }
+
+    @Test
+    public void deserialize_whenRetainRawValueDisabled_doNotAddRawValueHeader() throws Exception {
+        deserializer.configure(Map.of(), false);
+        Headers headers = new RecordHeaders();
+
+        deserializer.deserialize("orders", headers, serialize(getAvroOrder()));
+
+        assertNull(headers.lastHeader(OrderHeaders.RAW_VALUE));
+    }
+}
@@ -0,0 +1,172 @@
+package com.service.payment.serialization;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import com.service.avro.model.AvroOrderV2;
+import com.service.avro.model.AvroProduct;
+import com.service.payment.model.OrderStatus;
+import com.service.payment.utils.OrderIdUtils;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class AvroStatusRewriterTest {
+
+    private static final int SCHEMA_ID = 1;
+
+    private static final int COMPACT_SCHEMA_ID = 2;
+
+    private static final int EXTENDED_SCHEMA_ID = 3;
+
+    private static final Schema EXTENDED_SCHEMA = SchemaBuilder.record("ExtendedOrder").fields()
+            .name("tags").type().array().items().stringType().noDefault()
+            .name("attributes").type().map().values().longType().noDefault()
+            .name("id").type().stringType().noDefault()
+            .name("status").type().unionOf().nullType().and().type(AvroOrderStatus.getClassSchema()).endUnion()
+            .nullDefault()
+            .name("channel").type().stringType().noDefault()
+            .endRecord();
+
+    private AvroStatusRewriter rewriter;
+
+    @Mock
+    private SchemaRegistryClient schemaRegistryClient;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        when(schemaRegistryClient.getById(SCHEMA_ID)).thenReturn(AvroOrder.getClassSchema());
+        when(schemaRegistryClient.getById(COMPACT_SCHEMA_ID)).thenReturn(AvroOrderV2.getClassSchema());
+        when(schemaRegistryClient.getById(EXTENDED_SCHEMA_ID)).thenReturn(EXTENDED_SCHEMA);
+        this.rewriter = new AvroStatusRewriter(schemaRegistryClient);
+    }
+
+    private static AvroProduct getAvroProduct() {
+        AvroProduct avroProduct = new AvroProduct();
+        avroProduct.setId(1L);
+        avroProduct.setQuantity(2);
+        avroProduct.setPrice(100L);
+        return avroProduct;
+    }
+
+    private static GenericRecord getAvroOrder() {
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId(UUID.randomUUID().toString());
+        avroOrder.setStatus(AvroOrderStatus.NEW);
+        avroOrder.setProduct(getAvroProduct());
+        avroOrder.setSource("Source");
+        avroOrder.setCustomerId(1L);
+        return avroOrder;
+    }
+
+    private static byte[] serialize(GenericRecord record, int schemaId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        out.write(ByteBuffer.allocate(4).putInt(schemaId).array());
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static GenericRecord deserialize(byte[] data, Schema schema) throws IOException {
+        return new GenericDatumReader<GenericRecord>(schema).read(null,
+                DecoderFactory.get().binaryDecoder(data, 5, data.length - 5, null));
+    }
+
+    @Test
+    public void rewriteStatus_whenLegacyOrder_replaceOnlyStatus() throws IOException {
+        GenericRecord avroOrder = getAvroOrder();
+        byte[] data = serialize(avroOrder, SCHEMA_ID);
+
+        byte[] result = rewriter.rewriteStatus(data, OrderStatus.ACCEPT);
+
+        assertNotNull(result);
+        GenericRecord rewritten = deserialize(result, AvroOrder.getClassSchema());
+        assertEquals(AvroOrderStatus.ACCEPT.name(), rewritten.get("status").toString());
+        assertEquals(avroOrder.get("id").toString(), rewritten.get("id").toString());
+        assertEquals(avroOrder.get("customerId"), rewritten.get("customerId"));
+        assertEquals("Source", rewritten.get("source").toString());
+        assertEquals(100L, ((GenericRecord) rewritten.get("product")).get("price"));
+        assertArrayEquals(Arrays.copyOf(data, 5), Arrays.copyOf(result, 5));
+    }
+
+    @Test
+    public void rewriteStatus_whenCompactOrder_replaceOnlyStatus() throws IOException {
+        AvroOrderV2 avroOrder = new AvroOrderV2(OrderIdUtils.toAvroOrderId(UUID.randomUUID()), 1L, getAvroProduct(),
+                AvroOrderStatus.NEW, null);
+        byte[] data = serialize(avroOrder, COMPACT_SCHEMA_ID);
+
+        byte[] result = rewriter.rewriteStatus(data, OrderStatus.REJECT);
+
+        assertNotNull(result);
+        GenericRecord rewritten = deserialize(result, AvroOrderV2.getClassSchema());
+        assertEquals(AvroOrderStatus.REJECT.name(), rewritten.get("status").toString());
+        assertArrayEquals(avroOrder.getId().bytes(), ((GenericData.Fixed) rewritten.get("id")).bytes());
+        assertNull(rewritten.get("source"));
+    }
+
+    @Test
+    public void rewriteStatus_whenWriterSchemaHasUnknownFields_keepThemUntouched() throws IOException {
+        GenericRecord record = new GenericData.Record(EXTENDED_SCHEMA);
+        record.put("tags", List.of("a", "b"));
+        record.put("attributes", Map.of("weight", 7L));
+        record.put("id", "order-1");
+        record.put("status", new GenericData.EnumSymbol(AvroOrderStatus.getClassSchema(), "NEW"));
+        record.put("channel", "web");
+        byte[] data = serialize(record, EXTENDED_SCHEMA_ID);
+
+        byte[] result = rewriter.rewriteStatus(data, OrderStatus.ACCEPT);
+
+        assertNotNull(result);
+        GenericRecord rewritten = deserialize(result, EXTENDED_SCHEMA);
+        assertEquals("ACCEPT", rewritten.get("status").toString());
+        assertEquals(2, ((List<?>) rewritten.get("tags")).size());
+        assertEquals(1, ((Map<?, ?>) rewritten.get("attributes")).size());
+        assertEquals("order-1", rewritten.get("id").toString());
+        assertEquals("web", rewritten.get("channel").toString());
+    }
+
+    @Test
+    public void rewriteStatus_whenStatusIsNull_returnNull() throws IOException {
+        GenericRecord avroOrder = getAvroOrder();
+        avroOrder.put("status", null);
+
+        assertNull(rewriter.rewriteStatus(serialize(avroOrder, SCHEMA_ID), OrderStatus.ACCEPT));
+    }
+
+    @Test
+    public void rewriteStatus_whenMagicByteIsUnknown_returnNull() {
+        assertNull(rewriter.rewriteStatus(new byte[]{1, 0, 0, 0, 1, 0}, OrderStatus.ACCEPT));
+    }
+
+    @Test
+    public void rewriteStatus_whenDataIsTruncated_returnNull() throws IOException {
+        byte[] data = serialize(getAvroOrder(), SCHEMA_ID);
+
+        assertNull(rewriter.rewriteStatus(Arrays.copyOf(data, 12), OrderStatus.ACCEPT));
+    }
+}
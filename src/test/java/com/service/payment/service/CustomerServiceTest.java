@@ -1,13 +1,26 @@
 package com.service.payment.service;
 
+import com.service.payment.cache.MissingCustomerCache;
 import com.service.payment.converter.ConverterService;
 import com.service.payment.converter.CustomerFromCustomerDtoUpdater;
+import com.service.payment.dao.AdaptiveConcurrencyLimiter;
+import com.service.payment.dao.DaoExecutor;
+import com.service.payment.dao.DatabaseCircuitBreaker;
+import com.service.payment.dao.DatabaseLoadMonitor;
+import com.service.payment.dao.SavepointExecutor;
 import com.service.payment.dto.CustomerDto;
 import com.service.payment.entity.Customer;
 import com.service.payment.exception.*;
+import com.service.payment.journal.AuditJournal;
+import com.service.payment.journal.JournalEntryType;
+import com.service.payment.logging.LogSampler;
 import com.service.payment.model.Order;
+import com.service.payment.model.OrderStatus;
 import com.service.payment.model.Product;
+import com.service.payment.repository.BalanceMovement;
+import com.service.payment.repository.BalanceMovementResult;
 import com.service.payment.repository.CustomerRepository;
+import com.service.payment.repository.LedgerMovementResult;
 import com.service.payment.validation.CustomerBalanceValidator;
 import com.service.payment.validation.CustomerValidator;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,17 +28,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.query.BadJpqlGrammarException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -48,10 +65,33 @@ public class CustomerServiceTest {
     @Mock
     private ConverterService converter;
 
+    @Mock
+    private DatabaseLoadMonitor databaseLoadMonitor;
+
+    @Mock
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private AuditJournal auditJournal;
+
+    @Mock
+    private MissingCustomerCache missingCustomerCache;
+
+    @Mock
+    private SavepointExecutor savepointExecutor;
+
     @BeforeEach
     public void setUp() {
         this.customerService = new CustomerService(customerValidator, customerRepository, customerBalanceValidator,
-                customerFromCustomerDtoUpdater, converter);
+                customerFromCustomerDtoUpdater, converter, new DaoExecutor(databaseLoadMonitor, databaseCircuitBreaker,
+                adaptiveConcurrencyLimiter), logSampler, auditJournal,
+                missingCustomerCache, savepointExecutor);
     }
 
     @ParameterizedTest
@@ -125,6 +165,8 @@ public class CustomerServiceTest {
 
         verify(converter).convert(customerDto, Customer.class);
         verifyNoMoreInteractions(converter);
+
+        verify(missingCustomerCache).invalidate(1L);
     }
 
     @ParameterizedTest
@@ -138,14 +180,14 @@ public class CustomerServiceTest {
 
     @Test
     public void update_whenRepositoryThrowsExceptionExtendsDataAccessException_throwServiceException() {
-        doThrow(BadJpqlGrammarException.class).when(customerRepository).findById(any());
+        doThrow(BadJpqlGrammarException.class).when(customerRepository).findByIdForUpdate(any());
 
         CustomerDto customerDto = new CustomerDto();
         customerDto.setId(1L);
 
         assertThrows(ServiceException.class, () -> customerService.update(customerDto, 1L));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verifyNoMoreInteractions(customerRepository);
     }
 
@@ -156,7 +198,7 @@ public class CustomerServiceTest {
         Customer customer = new Customer();
         customer.setId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         doThrow(EntityValidationException.class).when(customerValidator).validate(any());
 
@@ -164,7 +206,7 @@ public class CustomerServiceTest {
 
         verify(customerValidator).validate(any());
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verifyNoMoreInteractions(customerRepository);
 
         verify(customerFromCustomerDtoUpdater).update(any(), any());
@@ -175,11 +217,11 @@ public class CustomerServiceTest {
 
     @Test
     public void update_whenCustomerDoesNotExists_throwEntityNotFoundException() {
-        when(customerRepository.findById(any())).thenReturn(Optional.empty());
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> customerService.update(new CustomerDto(), 1L));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verifyNoMoreInteractions(customerRepository);
 
         verifyNoInteractions(customerFromCustomerDtoUpdater);
@@ -194,13 +236,13 @@ public class CustomerServiceTest {
         Customer customer = new Customer();
         customer.setId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.ofNullable(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.ofNullable(customer));
         when(customerRepository.save(any())).thenReturn(customer);
         when(converter.convert(customer, CustomerDto.class)).thenReturn(customerDto);
 
         assertEquals(customerDto, customerService.update(customerDto, 1L));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verify(customerRepository).save(customer);
         verifyNoMoreInteractions(customerRepository);
 
@@ -264,6 +306,25 @@ public class CustomerServiceTest {
         verify(customerRepository).findById(any());
     }
 
+    @Test
+    public void findById_whenCustomerIsKnownMissing_throwEntityNotFoundExceptionWithoutQuery() {
+        when(missingCustomerCache.isKnownMissing(1L)).thenReturn(true);
+
+        assertThrows(EntityNotFoundException.class, () -> customerService.findById(1L));
+
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    public void findById_whenCustomerDoesNotExist_recordMiss() {
+        when(missingCustomerCache.token()).thenReturn(7L);
+        when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> customerService.findById(1L));
+
+        verify(missingCustomerCache).recordMiss(1L, 7L);
+    }
+
     @Test
     public void findById_success() {
         Customer customer = new Customer();
@@ -357,7 +418,7 @@ public class CustomerServiceTest {
         Customer customer = new Customer();
         customer.setId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         doThrow(ValidationException.class).when(customerBalanceValidator).validateReservationCreation(customer, order);
 
@@ -371,11 +432,11 @@ public class CustomerServiceTest {
         Order order = new Order();
         order.setCustomerId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.empty());
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> customerService.createReservation(order));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
     }
 
     @Test
@@ -387,7 +448,7 @@ public class CustomerServiceTest {
 
         assertThrows(ServiceException.class, () -> customerService.createReservation(order));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
     }
 
     @Test
@@ -407,16 +468,19 @@ public class CustomerServiceTest {
         customer.setBalanceAvailable(1000L);
         customer.setBalanceReserved(0L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         customerService.createReservation(order);
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verify(customerRepository).save(customer);
         verifyNoMoreInteractions(customerRepository);
 
         verify(customerBalanceValidator).validateReservationCreation(customer, order);
         verifyNoMoreInteractions(customerBalanceValidator);
+
+        verify(auditJournal).record(argThat(entry -> entry.type() == JournalEntryType.RESERVATION_CREATED &&
+                entry.amount() == 100L && entry.balanceAvailable() == 900L && entry.balanceReserved() == 100L));
     }
 
     @ParameterizedTest
@@ -433,7 +497,7 @@ public class CustomerServiceTest {
         Customer customer = new Customer();
         customer.setId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         doThrow(ValidationException.class).when(customerBalanceValidator).validateReservationRollback(customer, order);
 
@@ -447,11 +511,11 @@ public class CustomerServiceTest {
         Order order = new Order();
         order.setCustomerId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.empty());
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> customerService.rollbackReservation(order));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
     }
 
     @Test
@@ -463,7 +527,7 @@ public class CustomerServiceTest {
 
         assertThrows(ServiceException.class, () -> customerService.rollbackReservation(order));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
     }
 
     @Test
@@ -483,11 +547,11 @@ public class CustomerServiceTest {
         customer.setBalanceAvailable(1000L);
         customer.setBalanceReserved(0L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         customerService.rollbackReservation(order);
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verify(customerRepository).save(customer);
         verifyNoMoreInteractions(customerRepository);
 
@@ -509,7 +573,7 @@ public class CustomerServiceTest {
         Customer customer = new Customer();
         customer.setId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         doThrow(ValidationException.class).when(customerBalanceValidator).validateReservationConfirmation(customer, order);
 
@@ -523,11 +587,11 @@ public class CustomerServiceTest {
         Order order = new Order();
         order.setCustomerId(1L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.empty());
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> customerService.confirmReservation(order));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
     }
 
     @Test
@@ -539,7 +603,7 @@ public class CustomerServiceTest {
 
         assertThrows(ServiceException.class, () -> customerService.confirmReservation(order));
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
     }
 
     @Test
@@ -559,16 +623,171 @@ public class CustomerServiceTest {
         customer.setBalanceAvailable(1000L);
         customer.setBalanceReserved(0L);
 
-        when(customerRepository.findById(any())).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(any())).thenReturn(Optional.of(customer));
 
         customerService.confirmReservation(order);
 
-        verify(customerRepository).findById(any());
+        verify(customerRepository).findByIdForUpdate(any());
         verify(customerRepository).save(customer);
         verifyNoMoreInteractions(customerRepository);
 
         verify(customerBalanceValidator).validateReservationConfirmation(customer, order);
         verifyNoMoreInteractions(customerBalanceValidator);
     }
-}
 
+    @Test
+    public void applyMovements_whenCustomerHasSeveralMovements_applyInOrderAndSaveOnce() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setBalanceAvailable(150L);
+        customer.setBalanceReserved(0L);
+        Order firstReservation = movement(1L, OrderStatus.NEW, 100L);
+        Order rejectedReservation = movement(1L, OrderStatus.NEW, 100L);
+        Order confirmation = movement(1L, OrderStatus.CONFIRMATION, 100L);
+
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(customer));
+        doThrow(new InsufficientAvailableBalanceException(1L, rejectedReservation.getId()))
+                .when(customerBalanceValidator).validateReservationCreation(customer, rejectedReservation);
+
+        List<ServiceException> failures =
+                customerService.applyMovements(List.of(firstReservation, rejectedReservation, confirmation));
+
+        assertNull(failures.get(0));
+        assertInstanceOf(InsufficientAvailableBalanceException.class, failures.get(1));
+        assertNull(failures.get(2));
+        assertEquals(50L, customer.getBalanceAvailable());
+        assertEquals(0L, customer.getBalanceReserved());
+        verify(customerRepository, times(1)).findByIdForUpdate(1L);
+        verify(customerRepository, times(1)).save(customer);
+        verify(auditJournal, times(2)).record(any());
+    }
+
+    @Test
+    public void applyMovements_whenCustomerDoesNotExist_failOnlyItsMovements() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setBalanceAvailable(1000L);
+        customer.setBalanceReserved(0L);
+        Order existing = movement(1L, OrderStatus.NEW, 100L);
+        Order missing = movement(2L, OrderStatus.NEW, 100L);
+
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+
+        List<ServiceException> failures = customerService.applyMovements(List.of(missing, existing));
+
+        assertInstanceOf(EntityNotFoundException.class, failures.get(0));
+        assertNull(failures.get(1));
+        verify(customerRepository).save(customer);
+    }
+
+    @Test
+    public void applyMovements_whenSeveralCustomers_lockThemInIdOrder() {
+        Customer first = new Customer(1L, "first", 1000L, 0L);
+        Customer second = new Customer(2L, "second", 1000L, 0L);
+
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(first));
+        when(customerRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(second));
+
+        customerService.applyMovements(List.of(movement(2L, OrderStatus.NEW, 100L), movement(1L, OrderStatus.NEW, 100L)));
+
+        InOrder inOrder = inOrder(customerRepository);
+        inOrder.verify(customerRepository).findByIdForUpdate(1L);
+        inOrder.verify(customerRepository).findByIdForUpdate(2L);
+    }
+
+    @Test
+    public void applyMovements_whenBulkIsEnabled_mapResultsToFailures() {
+        ReflectionTestUtils.setField(customerService, "bulkMovementsEnabled", true);
+        Order applied = movement(1L, OrderStatus.NEW, 100L);
+        Order insufficient = movement(1L, OrderStatus.CONFIRMATION, 500L);
+        Order missing = movement(2L, OrderStatus.ROLLBACK, 100L);
+
+        when(missingCustomerCache.token()).thenReturn(3L);
+        when(customerRepository.applyMovements(List.of(new BalanceMovement(1L, -100L, 100L),
+                new BalanceMovement(1L, 0L, -500L), new BalanceMovement(2L, 100L, -100L)))).thenReturn(List.of(
+                new BalanceMovementResult(true, true, 900L, 100L), new BalanceMovementResult(true, false, null, null),
+                new BalanceMovementResult(false, false, null, null)));
+
+        List<ServiceException> failures = customerService.applyMovements(List.of(applied, insufficient, missing));
+
+        assertNull(failures.get(0));
+        assertInstanceOf(InsufficientReserveBalanceException.class, failures.get(1));
+        assertInstanceOf(EntityNotFoundException.class, failures.get(2));
+        verify(missingCustomerCache).recordMiss(2L, 3L);
+        verify(auditJournal).record(argThat(entry -> entry.type() == JournalEntryType.RESERVATION_CREATED &&
+                entry.balanceAvailable() == 900L && entry.balanceReserved() == 100L));
+        verify(customerRepository, never()).findByIdForUpdate(any());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    public void createReservation_whenLedgerFunctionIsEnabled_applyMovementInOneCallAndJournalIt() {
+        ReflectionTestUtils.setField(customerService, "ledgerFunctionEnabled", true);
+        Order order = movement(1L, OrderStatus.NEW, 100L);
+
+        when(customerRepository.applyLedgerMovement(order.getId(), "NEW", new BalanceMovement(1L, -100L, 100L)))
+                .thenReturn(new LedgerMovementResult(LedgerMovementResult.Outcome.APPLIED, 900L, 100L));
+
+        customerService.createReservation(order);
+
+        verify(auditJournal).record(argThat(entry -> entry.type() == JournalEntryType.RESERVATION_CREATED &&
+                entry.balanceAvailable() == 900L && entry.balanceReserved() == 100L));
+        verify(customerRepository, never()).findByIdForUpdate(any());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    public void confirmReservation_whenLedgerFunctionReportsDuplicate_doNotJournalOrThrow() {
+        ReflectionTestUtils.setField(customerService, "ledgerFunctionEnabled", true);
+        Order order = movement(1L, OrderStatus.CONFIRMATION, 100L);
+
+        when(customerRepository.applyLedgerMovement(order.getId(), "CONFIRMATION", new BalanceMovement(1L, 0L, -100L)))
+                .thenReturn(new LedgerMovementResult(LedgerMovementResult.Outcome.DUPLICATE, null, null));
+
+        assertDoesNotThrow(() -> customerService.confirmReservation(order));
+
+        verifyNoInteractions(auditJournal);
+    }
+
+    @Test
+    public void rollbackReservation_whenLedgerFunctionReportsInsufficientBalance_throwInsufficientReserveBalanceException() {
+        ReflectionTestUtils.setField(customerService, "ledgerFunctionEnabled", true);
+        Order order = movement(1L, OrderStatus.ROLLBACK, 100L);
+
+        when(customerRepository.applyLedgerMovement(any(), any(), any())).thenReturn(
+                new LedgerMovementResult(LedgerMovementResult.Outcome.INSUFFICIENT_BALANCE, null, null));
+
+        assertThrows(InsufficientReserveBalanceException.class, () -> customerService.rollbackReservation(order));
+
+        verifyNoInteractions(auditJournal);
+    }
+
+    @Test
+    public void createReservation_whenLedgerFunctionReportsMissingCustomer_recordMissAndThrowEntityNotFoundException() {
+        ReflectionTestUtils.setField(customerService, "ledgerFunctionEnabled", true);
+        Order order = movement(2L, OrderStatus.NEW, 100L);
+
+        when(missingCustomerCache.token()).thenReturn(5L);
+        when(customerRepository.applyLedgerMovement(any(), any(), any())).thenReturn(
+                new LedgerMovementResult(LedgerMovementResult.Outcome.CUSTOMER_NOT_FOUND, null, null));
+
+        assertThrows(EntityNotFoundException.class, () -> customerService.createReservation(order));
+
+        verify(missingCustomerCache).recordMiss(2L, 5L);
+    }
+
+    private static Order movement(Long customerId, OrderStatus status, long price) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setQuantity(1);
+        product.setPrice(price);
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(customerId);
+        order.setStatus(status);
+        order.setProduct(product);
+        return order;
+    }
+}
@@ -0,0 +1,62 @@
+package com.service.payment.service;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FairOrderSchedulerTest {
+
+    @Test
+    public void interleave_whenOneCustomerBursts_alternateCustomersAndKeepTheirOrder() {
+        FairOrderScheduler scheduler = new FairOrderScheduler(new MockEnvironment());
+        OrderRecord burst1 = orderRecord(1L);
+        OrderRecord burst2 = orderRecord(1L);
+        OrderRecord burst3 = orderRecord(1L);
+        OrderRecord small1 = orderRecord(2L);
+        OrderRecord small2 = orderRecord(2L);
+        OrderRecord other = orderRecord(3L);
+
+        List<OrderRecord> schedule = scheduler.interleave(List.of(burst1, burst2, burst3, small1, small2, other));
+
+        assertEquals(List.of(burst1, small1, other, burst2, small2, burst3), schedule);
+    }
+
+    @Test
+    public void interleave_whenCustomerHasWeight_giveItProportionalShare() {
+        FairOrderScheduler scheduler = new FairOrderScheduler(
+                new MockEnvironment().withProperty("kafka.orders.fair-scheduling.weights.1", "2"));
+        OrderRecord heavy1 = orderRecord(1L);
+        OrderRecord heavy2 = orderRecord(1L);
+        OrderRecord heavy3 = orderRecord(1L);
+        OrderRecord heavy4 = orderRecord(1L);
+        OrderRecord light1 = orderRecord(2L);
+        OrderRecord light2 = orderRecord(2L);
+
+        List<OrderRecord> schedule =
+                scheduler.interleave(List.of(heavy1, heavy2, heavy3, heavy4, light1, light2));
+
+        assertEquals(List.of(heavy1, heavy2, light1, heavy3, heavy4, light2), schedule);
+    }
+
+    @Test
+    public void constructor_whenWeightIsNotPositive_throwIllegalArgumentException() {
+        MockEnvironment environment = new MockEnvironment().withProperty("kafka.orders.fair-scheduling.weights.1", "0");
+
+        assertThrows(IllegalArgumentException.class, () -> new FairOrderScheduler(environment));
+    }
+
+    private static OrderRecord orderRecord(Long customerId) {
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId(UUID.randomUUID().toString());
+        avroOrder.setCustomerId(customerId);
+        avroOrder.setStatus(AvroOrderStatus.NEW);
+        return new OrderRecord(avroOrder, null, new ConsumerRecord<>("orders", 0, 0, null, avroOrder));
+    }
+}
@@ -4,9 +4,15 @@ import com.service.avro.model.AvroOrder;
 import com.service.avro.model.AvroProduct;
 import com.service.payment.container.SchemaRegistryContainer;
 import com.service.payment.converter.OrderToAvroOrderConverter;
+import com.service.payment.converter.OrderToAvroOrderV2Converter;
+import com.service.payment.logging.LogSampler;
 import com.service.payment.model.Order;
 import com.service.payment.model.OrderStatus;
 import com.service.payment.model.Product;
+import com.service.payment.producer.AdaptiveBatchingController;
+import com.service.payment.serialization.AvroStatusRewriter;
+import com.service.payment.serialization.PassthroughSerializer;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import org.apache.avro.generic.GenericRecord;
@@ -32,6 +38,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.testcontainers.containers.KafkaContainer;
@@ -150,8 +157,7 @@ public class KafkaPaymentOrderProducerServiceIntegrationTest {
 
             props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
             props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class);
-            props.put("schema.registry.url",
-                    "http://" + SCHEMA_REGISTRY.getHost() + ":" + SCHEMA_REGISTRY.getFirstMappedPort());
+            props.put("schema.registry.url", schemaRegistryUrl());
 
             props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 
@@ -159,25 +165,49 @@ public class KafkaPaymentOrderProducerServiceIntegrationTest {
         }
 
         @Bean
-        public ProducerFactory<String, AvroOrder> producerFactory() {
+        public ProducerFactory<String, Object> producerFactory() {
             Map<String, Object> configProps = new HashMap<>();
             configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA.getBootstrapServers());
             configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-            configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
-            configProps.put("schema.registry.url",
-                    "http://" + SCHEMA_REGISTRY.getHost() + ":" + SCHEMA_REGISTRY.getFirstMappedPort());
+            configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, PassthroughSerializer.class);
+            configProps.put(PassthroughSerializer.DELEGATE_CLASS_CONFIG, KafkaAvroSerializer.class);
+            configProps.put("schema.registry.url", schemaRegistryUrl());
             return new DefaultKafkaProducerFactory<>(configProps);
         }
 
         @Bean
-        public KafkaTemplate<String, AvroOrder> kafkaTemplate() {
+        public KafkaTemplate<String, Object> kafkaTemplate() {
             return new KafkaTemplate<>(producerFactory());
         }
 
+        @Bean
+        public AdaptiveBatchingController adaptiveBatchingController() {
+            return new AdaptiveBatchingController(producerFactory(), kafkaTemplate());
+        }
+
+        @Bean
+        public LogSampler logSampler() {
+            return new LogSampler(new MockEnvironment());
+        }
+
+        @Bean
+        public AvroStatusRewriter avroStatusRewriter() {
+            return new AvroStatusRewriter(new CachedSchemaRegistryClient(schemaRegistryUrl(), 100));
+        }
+
         @Bean
         public OrderToAvroOrderConverter orderToAvroOrderConverter() {
             return new OrderToAvroOrderConverter();
         }
 
+        @Bean
+        public OrderToAvroOrderV2Converter orderToAvroOrderV2Converter() {
+            return new OrderToAvroOrderV2Converter();
+        }
+
+        private static String schemaRegistryUrl() {
+            return "http://" + SCHEMA_REGISTRY.getHost() + ":" + SCHEMA_REGISTRY.getFirstMappedPort();
+        }
+
     }
 }
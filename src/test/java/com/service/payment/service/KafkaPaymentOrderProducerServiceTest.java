@@ -0,0 +1,100 @@
+package com.service.payment.service;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import com.service.avro.model.AvroOrderV2;
+import com.service.payment.converter.OrderToAvroOrderConverter;
+import com.service.payment.converter.OrderToAvroOrderV2Converter;
+import com.service.payment.logging.LogSampler;
+import com.service.payment.model.Order;
+import com.service.payment.model.OrderStatus;
+import com.service.payment.model.Product;
+import com.service.payment.model.RejectionReason;
+import com.service.payment.producer.AdaptiveBatchingController;
+import com.service.payment.serialization.AvroStatusRewriter;
+import com.service.payment.serialization.OrderWireFormat;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class KafkaPaymentOrderProducerServiceTest {
+
+    private KafkaPaymentOrderProducerService producer;
+
+    @Mock
+    private KafkaTemplate<String, Object> template;
+
+    @Mock
+    private AvroStatusRewriter statusRewriter;
+
+    @Mock
+    private AdaptiveBatchingController batchingController;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @BeforeEach
+    public void setUp() {
+        this.producer = new KafkaPaymentOrderProducerService(template, new OrderToAvroOrderConverter(),
+                new OrderToAvroOrderV2Converter(), statusRewriter, batchingController, logSampler);
+        ReflectionTestUtils.setField(producer, "topic", "payment-orders");
+        ReflectionTestUtils.setField(producer, "wireFormat", OrderWireFormat.COMPACT);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(batchingController).guardSend(any());
+    }
+
+    @Test
+    public void sendOrder_whenWireFormatIsCompact_sendCompactOrder() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setQuantity(2);
+        product.setPrice(100L);
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(1L);
+        order.setProduct(product);
+        order.setStatus(OrderStatus.ACCEPT);
+
+        producer.sendOrder(order);
+
+        assertInstanceOf(AvroOrderV2.class, sentValue());
+    }
+
+    @Test
+    public void sendOrder_whenMalformedOrderIsRejectedInCompactFormat_sendLegacyOrder() {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setStatus(OrderStatus.REJECT);
+        order.setRejectionReason(RejectionReason.MALFORMED_ORDER);
+
+        producer.sendOrder(order);
+
+        AvroOrder avroOrder = assertInstanceOf(AvroOrder.class, sentValue());
+        assertEquals(order.getId().toString(), avroOrder.getId().toString());
+        assertEquals(AvroOrderStatus.REJECT, avroOrder.getStatus());
+        assertNull(avroOrder.getCustomerId());
+        assertNull(avroOrder.getProduct());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object sentValue() {
+        ArgumentCaptor<ProducerRecord<String, Object>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(template).send(record.capture());
+        return record.getValue().value();
+    }
+}
@@ -2,15 +2,32 @@ package com.service.payment.service;
 
 import com.service.avro.model.AvroOrder;
 import com.service.avro.model.AvroOrderStatus;
+import com.service.payment.consumer.FailedOrderRecordRecoverer;
+import com.service.payment.exception.OrderRecordFailedException;
+import com.service.payment.exception.ServiceException;
+import com.service.payment.exception.TransientServiceException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -24,7 +41,8 @@ public class OrderProcessingServiceTest {
 
     @BeforeEach
     public void setUp(){
-        this.orderProcessingService = new OrderProcessingService(orderService);
+        this.orderProcessingService =
+                new OrderProcessingService(orderService, new FairOrderScheduler(new MockEnvironment()));
     }
 
     @ParameterizedTest
@@ -40,7 +58,7 @@ public class OrderProcessingServiceTest {
 
         assertDoesNotThrow(() -> orderProcessingService.process(avroOrder));
 
-        verify(orderService).processNewOrder(avroOrder);
+        verify(orderService).processNewOrder(avroOrder, null);
         verifyNoMoreInteractions(orderService);
     }
 
@@ -85,4 +103,320 @@ public class OrderProcessingServiceTest {
         verifyNoInteractions(orderService);
     }
 
+    @Test
+    public void processBatch_whenCoalescingIsDisabled_processRecordsInOrder(){
+        AvroOrder newOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder rollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        byte[] rawValue = {1};
+
+        orderProcessingService.process(
+                List.of(orderRecord(newOrder, rawValue, 0), orderRecord(rollbackOrder, null, 1)));
+
+        InOrder inOrder = inOrder(orderService);
+        inOrder.verify(orderService).processNewOrder(newOrder, rawValue);
+        inOrder.verify(orderService).processRollbackOrder(rollbackOrder);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenRecordFails_reportFailedRecordAndStop(){
+        AvroOrder failingOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder nextOrder = avroOrder(AvroOrderStatus.NEW);
+        OrderRecord failingRecord = orderRecord(failingOrder, null, 1);
+        doThrow(new TransientServiceException("Database unavailable")).when(orderService)
+                .processNewOrder(failingOrder, null);
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> orderProcessingService.process(List.of(failingRecord, orderRecord(nextOrder, null, 2))));
+
+        assertSame(failingRecord.consumerRecord(), e.getRecord());
+        verify(orderService, never()).processNewOrder(nextOrder, null);
+    }
+
+    @Test
+    public void processBatch_whenCoalescingIsEnabled_processMovementsTogether(){
+        ReflectionTestUtils.setField(orderProcessingService, "coalescingEnabled", true);
+        OrderRecord newRecord = orderRecord(avroOrder(AvroOrderStatus.NEW), null, 0);
+        OrderRecord acceptedRecord = orderRecord(avroOrder(AvroOrderStatus.ACCEPT), null, 1);
+        OrderRecord confirmationRecord = orderRecord(avroOrder(AvroOrderStatus.CONFIRMATION), null, 2);
+
+        orderProcessingService.process(List.of(newRecord, acceptedRecord, confirmationRecord));
+
+        verify(orderService).processCoalesced(List.of(newRecord, confirmationRecord));
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenCoalescedBatchFails_reportFirstMovement(){
+        ReflectionTestUtils.setField(orderProcessingService, "coalescingEnabled", true);
+        OrderRecord newRecord = orderRecord(avroOrder(AvroOrderStatus.NEW), null, 3);
+        doThrow(new TransientServiceException("Database unavailable")).when(orderService).processCoalesced(any());
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> orderProcessingService.process(List.of(newRecord)));
+
+        assertSame(newRecord.consumerRecord(), e.getRecord());
+    }
+
+    @Test
+    public void processBatch_whenGroupCommitIsEnabled_processMovementsInOneTransaction(){
+        ReflectionTestUtils.setField(orderProcessingService, "groupCommitEnabled", true);
+        OrderRecord rollbackRecord = orderRecord(avroOrder(AvroOrderStatus.ROLLBACK), null, 0);
+        OrderRecord unknownRecord = orderRecord(avroOrder(null), null, 1);
+        OrderRecord newRecord = orderRecord(avroOrder(AvroOrderStatus.NEW), null, 2);
+
+        orderProcessingService.process(List.of(rollbackRecord, unknownRecord, newRecord));
+
+        verify(orderService).processGroupCommit(List.of(rollbackRecord, newRecord));
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenPriorityIsEnabled_handleRollbacksAndConfirmationsBeforeNewOrders(){
+        ReflectionTestUtils.setField(orderProcessingService, "priorityEnabled", true);
+        AvroOrder firstNewOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder secondNewOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder rollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        AvroOrder confirmationOrder = avroOrder(AvroOrderStatus.CONFIRMATION);
+        AvroOrder sameOrderConfirmation = avroOrder(AvroOrderStatus.CONFIRMATION);
+        sameOrderConfirmation.setId(secondNewOrder.getId());
+
+        orderProcessingService.process(List.of(orderRecord(firstNewOrder, null, 0),
+                orderRecord(secondNewOrder, null, 1), orderRecord(rollbackOrder, null, 2),
+                orderRecord(sameOrderConfirmation, null, 3), orderRecord(confirmationOrder, null, 4)));
+
+        InOrder inOrder = inOrder(orderService);
+        inOrder.verify(orderService).processRollbackOrder(rollbackOrder);
+        inOrder.verify(orderService).processConfirmationOrder(confirmationOrder);
+        inOrder.verify(orderService).processNewOrder(firstNewOrder, null);
+        inOrder.verify(orderService).processNewOrder(secondNewOrder, null);
+        inOrder.verify(orderService).processConfirmationOrder(sameOrderConfirmation);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenPrioritizedRecordFails_reportEarliestUnprocessedRecord(){
+        ReflectionTestUtils.setField(orderProcessingService, "priorityEnabled", true);
+        AvroOrder newOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder rollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        AvroOrder failingOrder = avroOrder(AvroOrderStatus.CONFIRMATION);
+        OrderRecord newRecord = orderRecord(newOrder, null, 0);
+        doThrow(new TransientServiceException("Database unavailable")).when(orderService)
+                .processConfirmationOrder(failingOrder);
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> orderProcessingService.process(List.of(newRecord, orderRecord(rollbackOrder, null, 1),
+                        orderRecord(failingOrder, null, 2))));
+
+        assertSame(newRecord.consumerRecord(), e.getRecord());
+        verify(orderService).processRollbackOrder(rollbackOrder);
+        verify(orderService, never()).processNewOrder(any(), any());
+    }
+
+    @Test
+    public void processBatch_whenReorderedBatchIsRedelivered_skipRecordsHandledAheadOfTheFailure(){
+        ReflectionTestUtils.setField(orderProcessingService, "priorityEnabled", true);
+        AvroOrder newOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder rollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        AvroOrder nextNewOrder = avroOrder(AvroOrderStatus.NEW);
+        List<OrderRecord> batch = List.of(orderRecord(newOrder, null, 10), orderRecord(rollbackOrder, null, 11),
+                orderRecord(nextNewOrder, null, 12));
+        doThrow(new TransientServiceException("Database unavailable")).doNothing().when(orderService)
+                .processNewOrder(newOrder, null);
+
+        assertThrows(BatchListenerFailedException.class, () -> orderProcessingService.process(batch));
+        orderProcessingService.process(batch);
+
+        verify(orderService, times(1)).processRollbackOrder(rollbackOrder);
+        verify(orderService, times(2)).processNewOrder(newOrder, null);
+        verify(orderService, times(1)).processNewOrder(nextNewOrder, null);
+    }
+
+    @Test
+    public void processBatch_whenReorderedRecordFailsUntilRetriesRunOut_giveUpOnTheFailedRecord(){
+        ReflectionTestUtils.setField(orderProcessingService, "priorityEnabled", true);
+        FailedOrderRecordRecoverer recoverer = new FailedOrderRecordRecoverer(orderProcessingService);
+        AvroOrder newOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder failingOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        List<OrderRecord> batch = List.of(orderRecord(newOrder, null, 30), orderRecord(failingOrder, null, 31));
+        doThrow(new IllegalStateException("Broken order")).when(orderService).processRollbackOrder(failingOrder);
+
+        BatchListenerFailedException e =
+                assertThrows(BatchListenerFailedException.class, () -> orderProcessingService.process(batch));
+        assertThrows(KafkaException.class, () -> recoverer.accept(e.getRecord(), e));
+        orderProcessingService.process(batch);
+
+        assertSame(batch.get(0).consumerRecord(), e.getRecord());
+        verify(orderService, times(1)).processRollbackOrder(failingOrder);
+        verify(orderService, times(1)).processNewOrder(newOrder, null);
+    }
+
+    @Test
+    public void processBatch_whenFairSchedulingAndPriorityAreEnabled_interleaveCustomersWithinEachGroup(){
+        ReflectionTestUtils.setField(orderProcessingService, "priorityEnabled", true);
+        ReflectionTestUtils.setField(orderProcessingService, "fairSchedulingEnabled", true);
+        AvroOrder firstBurstOrder = avroOrder(AvroOrderStatus.NEW, 1L);
+        AvroOrder secondBurstOrder = avroOrder(AvroOrderStatus.NEW, 1L);
+        AvroOrder smallCustomerOrder = avroOrder(AvroOrderStatus.NEW, 2L);
+        AvroOrder rollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK, 1L);
+
+        orderProcessingService.process(List.of(orderRecord(firstBurstOrder, null, 0),
+                orderRecord(secondBurstOrder, null, 1), orderRecord(smallCustomerOrder, null, 2),
+                orderRecord(rollbackOrder, null, 3)));
+
+        InOrder inOrder = inOrder(orderService);
+        inOrder.verify(orderService).processRollbackOrder(rollbackOrder);
+        inOrder.verify(orderService).processNewOrder(firstBurstOrder, null);
+        inOrder.verify(orderService).processNewOrder(smallCustomerOrder, null);
+        inOrder.verify(orderService).processNewOrder(secondBurstOrder, null);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenNewOrderIsOlderThanMaxAge_rejectExpiredAndStillApplyRollbacks(){
+        ReflectionTestUtils.setField(orderProcessingService, "maxAgeMs", 60_000L);
+        long stale = System.currentTimeMillis() - 120_000L;
+        AvroOrder expiredOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder staleRollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        AvroOrder freshOrder = avroOrder(AvroOrderStatus.NEW);
+        byte[] rawValue = {1};
+
+        orderProcessingService.process(List.of(timestampedRecord(expiredOrder, rawValue, 0, stale),
+                timestampedRecord(staleRollbackOrder, null, 1, stale),
+                timestampedRecord(freshOrder, null, 2, System.currentTimeMillis())));
+
+        InOrder inOrder = inOrder(orderService);
+        inOrder.verify(orderService).rejectExpired(expiredOrder, rawValue);
+        inOrder.verify(orderService).processRollbackOrder(staleRollbackOrder);
+        inOrder.verify(orderService).processNewOrder(freshOrder, null);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenGroupCommitIsEnabled_leaveExpiredOrdersOutOfTheTransaction(){
+        ReflectionTestUtils.setField(orderProcessingService, "groupCommitEnabled", true);
+        ReflectionTestUtils.setField(orderProcessingService, "maxAgeMs", 60_000L);
+        AvroOrder expiredOrder = avroOrder(AvroOrderStatus.NEW);
+        OrderRecord freshRecord =
+                timestampedRecord(avroOrder(AvroOrderStatus.NEW), null, 1, System.currentTimeMillis());
+
+        orderProcessingService.process(List.of(
+                timestampedRecord(expiredOrder, null, 0, System.currentTimeMillis() - 120_000L), freshRecord));
+
+        verify(orderService).rejectExpired(expiredOrder, null);
+        verify(orderService).processGroupCommit(List.of(freshRecord));
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    public void processBatch_whenFairlyScheduledBatchIsRedelivered_skipRecordsHandledAheadOfTheFailure(){
+        ReflectionTestUtils.setField(orderProcessingService, "fairSchedulingEnabled", true);
+        AvroOrder burstOrder = avroOrder(AvroOrderStatus.NEW, 1L);
+        AvroOrder failingBurstOrder = avroOrder(AvroOrderStatus.NEW, 1L);
+        AvroOrder smallCustomerOrder = avroOrder(AvroOrderStatus.NEW, 2L);
+        List<OrderRecord> batch = List.of(orderRecord(burstOrder, null, 20), orderRecord(failingBurstOrder, null, 21),
+                orderRecord(smallCustomerOrder, null, 22));
+        doThrow(new TransientServiceException("Database unavailable")).doNothing().when(orderService)
+                .processNewOrder(failingBurstOrder, null);
+
+        BatchListenerFailedException e =
+                assertThrows(BatchListenerFailedException.class, () -> orderProcessingService.process(batch));
+        orderProcessingService.process(batch.subList(1, 3));
+
+        assertSame(batch.get(1).consumerRecord(), e.getRecord());
+        verify(orderService, times(1)).processNewOrder(burstOrder, null);
+        verify(orderService, times(1)).processNewOrder(smallCustomerOrder, null);
+        verify(orderService, times(2)).processNewOrder(failingBurstOrder, null);
+    }
+
+    @Test
+    public void processBatch_whenFairlyScheduledRecordFailsUntilRetriesRunOut_skipOnlyTheFailedRecord(){
+        ReflectionTestUtils.setField(orderProcessingService, "fairSchedulingEnabled", true);
+        FailedOrderRecordRecoverer recoverer = new FailedOrderRecordRecoverer(orderProcessingService);
+        AvroOrder burstOrder = avroOrder(AvroOrderStatus.NEW, 1L);
+        AvroOrder waitingBurstOrder = avroOrder(AvroOrderStatus.NEW, 1L);
+        AvroOrder failingOrder = avroOrder(AvroOrderStatus.NEW, 2L);
+        List<OrderRecord> batch = List.of(orderRecord(burstOrder, null, 40), orderRecord(waitingBurstOrder, null, 41),
+                orderRecord(failingOrder, null, 42));
+        doThrow(new IllegalStateException("Broken order")).when(orderService).processNewOrder(failingOrder, null);
+
+        BatchListenerFailedException e =
+                assertThrows(BatchListenerFailedException.class, () -> orderProcessingService.process(batch));
+        assertThrows(KafkaException.class, () -> recoverer.accept(e.getRecord(), e));
+        orderProcessingService.process(batch.subList(1, 3));
+
+        assertSame(batch.get(1).consumerRecord(), e.getRecord());
+        verify(orderService, times(1)).processNewOrder(burstOrder, null);
+        verify(orderService, times(1)).processNewOrder(failingOrder, null);
+        verify(orderService, times(1)).processNewOrder(waitingBurstOrder, null);
+    }
+
+    @Test
+    public void processBatch_whenGroupCommitOrderFailsUntilRetriesRunOut_redeliverBatchWithoutIt(){
+        ReflectionTestUtils.setField(orderProcessingService, "groupCommitEnabled", true);
+        FailedOrderRecordRecoverer recoverer = new FailedOrderRecordRecoverer(orderProcessingService);
+        OrderRecord firstRecord = orderRecord(avroOrder(AvroOrderStatus.NEW), null, 50);
+        OrderRecord failingRecord = orderRecord(avroOrder(AvroOrderStatus.NEW), null, 51);
+        List<OrderRecord> batch = List.of(firstRecord, failingRecord);
+        doThrow(new OrderRecordFailedException(failingRecord.consumerRecord(), new IllegalStateException()))
+                .when(orderService).processGroupCommit(batch);
+
+        BatchListenerFailedException e =
+                assertThrows(BatchListenerFailedException.class, () -> orderProcessingService.process(batch));
+        assertThrows(KafkaException.class, () -> recoverer.accept(e.getRecord(), e));
+        orderProcessingService.process(batch);
+
+        assertSame(firstRecord.consumerRecord(), e.getRecord());
+        verify(orderService).processGroupCommit(List.of(firstRecord));
+    }
+
+    @Test
+    public void processBatch_whenCoalescedBatchFailsWithoutNamingAnOrder_processOrdersOneByOne(){
+        ReflectionTestUtils.setField(orderProcessingService, "coalescingEnabled", true);
+        AvroOrder newOrder = avroOrder(AvroOrderStatus.NEW);
+        AvroOrder rollbackOrder = avroOrder(AvroOrderStatus.ROLLBACK);
+        List<OrderRecord> batch = List.of(orderRecord(newOrder, null, 60), orderRecord(rollbackOrder, null, 61));
+        doThrow(new ServiceException("DAO operation failed")).when(orderService).processCoalesced(batch);
+
+        assertDoesNotThrow(() -> orderProcessingService.process(batch));
+
+        verify(orderService).processNewOrder(newOrder, null);
+        verify(orderService).processRollbackOrder(rollbackOrder);
+    }
+
+    @Test
+    public void processBatch_whenCoalescedBatchFailsTransiently_redeliverWholeBatch(){
+        ReflectionTestUtils.setField(orderProcessingService, "coalescingEnabled", true);
+        List<OrderRecord> batch = List.of(orderRecord(avroOrder(AvroOrderStatus.NEW), null, 70),
+                orderRecord(avroOrder(AvroOrderStatus.NEW), null, 71));
+        doThrow(new TransientServiceException("Database unavailable")).when(orderService).processCoalesced(batch);
+
+        BatchListenerFailedException e =
+                assertThrows(BatchListenerFailedException.class, () -> orderProcessingService.process(batch));
+
+        assertSame(batch.get(0).consumerRecord(), e.getRecord());
+        verify(orderService, never()).processNewOrder(any(), any());
+    }
+
+    private static OrderRecord timestampedRecord(AvroOrder avroOrder, byte[] rawValue, long offset, long timestamp) {
+        return new OrderRecord(avroOrder, rawValue, new ConsumerRecord<>("orders", 0, offset, timestamp,
+                TimestampType.CREATE_TIME, 0, 0, null, avroOrder, new RecordHeaders(), Optional.empty()));
+    }
+
+    private static AvroOrder avroOrder(AvroOrderStatus status, Long customerId) {
+        AvroOrder avroOrder = avroOrder(status);
+        avroOrder.setCustomerId(customerId);
+        return avroOrder;
+    }
+
+    private static AvroOrder avroOrder(AvroOrderStatus status) {
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId(UUID.randomUUID().toString());
+        avroOrder.setStatus(status);
+        return avroOrder;
+    }
+
+    private static OrderRecord orderRecord(AvroOrder avroOrder, byte[] rawValue, long offset) {
+        return new OrderRecord(avroOrder, rawValue, new ConsumerRecord<>("orders", 0, offset, null, avroOrder));
+    }
 }
@@ -0,0 +1,224 @@
+package com.service.payment.service;
+
+import com.service.avro.model.AvroOrder;
+import com.service.payment.cache.MissingCustomerCache;
+import com.service.payment.converter.ConverterService;
+import com.service.payment.converter.CustomerFromCustomerDtoUpdater;
+import com.service.payment.dao.AdaptiveConcurrencyLimiter;
+import com.service.payment.dao.DaoExecutor;
+import com.service.payment.dao.DatabaseCircuitBreaker;
+import com.service.payment.dao.DatabaseLoadMonitor;
+import com.service.payment.dao.SavepointExecutor;
+import com.service.payment.entity.Customer;
+import com.service.payment.journal.AuditJournal;
+import com.service.payment.logging.LogSampler;
+import com.service.payment.model.Order;
+import com.service.payment.model.OrderStatus;
+import com.service.payment.model.Product;
+import com.service.payment.model.RejectionReason;
+import com.service.payment.repository.CustomerRepository;
+import com.service.payment.validation.CustomerBalanceValidator;
+import com.service.payment.validation.CustomerValidator;
+import com.service.payment.validation.OrderPreValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the group-commit path through the transactional proxies and a real {@link JpaTransactionManager}, so a rejected
+ * order that marked the shared transaction rollback-only would fail the commit of the whole batch.
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = OrderServiceGroupCommitTest.GroupCommitConfiguration.class)
+public class OrderServiceGroupCommitTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ConverterService converterService;
+
+    @Autowired
+    private SavepointExecutor savepointExecutor;
+
+    @Autowired
+    private KafkaPaymentOrderProducerService kafkaPaymentOrderProducerService;
+
+    @Autowired
+    private EntityTransaction entityTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(savepointExecutor).run(any());
+    }
+
+    @Test
+    public void processGroupCommit_whenOneOrderIsRejected_commitTheOthers() {
+        Customer customer = new Customer(1L, "customer", 150L, 0L);
+        AvroOrder acceptedAvroOrder = new AvroOrder();
+        acceptedAvroOrder.setId("accepted");
+        AvroOrder rejectedAvroOrder = new AvroOrder();
+        rejectedAvroOrder.setId("rejected");
+        AvroOrder missingCustomerAvroOrder = new AvroOrder();
+        missingCustomerAvroOrder.setId("missing");
+        Order acceptedOrder = order(1L, 100L);
+        Order rejectedOrder = order(1L, 100L);
+        Order missingCustomerOrder = order(2L, 10L);
+
+        when(converterService.convert(acceptedAvroOrder, Order.class)).thenReturn(acceptedOrder);
+        when(converterService.convert(rejectedAvroOrder, Order.class)).thenReturn(rejectedOrder);
+        when(converterService.convert(missingCustomerAvroOrder, Order.class)).thenReturn(missingCustomerOrder);
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+
+        orderService.processGroupCommit(List.of(orderRecord(acceptedAvroOrder), orderRecord(rejectedAvroOrder),
+                orderRecord(missingCustomerAvroOrder)));
+
+        assertEquals(OrderStatus.ACCEPT, acceptedOrder.getStatus());
+        assertEquals(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, rejectedOrder.getRejectionReason());
+        assertEquals(RejectionReason.CUSTOMER_NOT_FOUND, missingCustomerOrder.getRejectionReason());
+        assertEquals(50L, customer.getBalanceAvailable());
+        verify(entityTransaction).commit();
+        verify(entityTransaction, never()).rollback();
+        verify(kafkaPaymentOrderProducerService, times(3)).sendOrder(any(), any());
+    }
+
+    private static Order order(Long customerId, long price) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setQuantity(1);
+        product.setPrice(price);
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(customerId);
+        order.setStatus(OrderStatus.NEW);
+        order.setProduct(product);
+        return order;
+    }
+
+    private static OrderRecord orderRecord(AvroOrder avroOrder) {
+        return new OrderRecord(avroOrder, null, new ConsumerRecord<>("orders", 0, 0, null, avroOrder));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({OrderService.class, CustomerService.class, CustomerValidator.class, CustomerBalanceValidator.class,
+            LogSampler.class})
+    public static class GroupCommitConfiguration {
+
+        @Bean
+        public EntityTransaction entityTransaction() {
+            EntityTransaction entityTransaction = Mockito.mock(EntityTransaction.class);
+            AtomicBoolean rollbackOnly = new AtomicBoolean();
+            doAnswer(invocation -> {
+                rollbackOnly.set(true);
+                return null;
+            }).when(entityTransaction).setRollbackOnly();
+            when(entityTransaction.getRollbackOnly()).thenAnswer(invocation -> rollbackOnly.get());
+            when(entityTransaction.isActive()).thenReturn(true);
+            return entityTransaction;
+        }
+
+        @Bean
+        public EntityManagerFactory entityManagerFactory(EntityTransaction entityTransaction) {
+            EntityManager entityManager = Mockito.mock(EntityManager.class);
+            when(entityManager.getTransaction()).thenReturn(entityTransaction);
+            EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+            when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+            return entityManagerFactory;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        public RetryTemplate daoRetryTemplate() {
+            return RetryTemplate.builder().maxAttempts(1).build();
+        }
+
+        @Bean
+        public DaoExecutor daoExecutor() {
+            return new DaoExecutor(Mockito.mock(DatabaseLoadMonitor.class), Mockito.mock(DatabaseCircuitBreaker.class),
+                    Mockito.mock(AdaptiveConcurrencyLimiter.class));
+        }
+
+        @Bean
+        public SavepointExecutor savepointExecutor() {
+            return Mockito.mock(SavepointExecutor.class);
+        }
+
+        @Bean
+        public CustomerRepository customerRepository() {
+            return Mockito.mock(CustomerRepository.class);
+        }
+
+        @Bean
+        public ConverterService converterService() {
+            return Mockito.mock(ConverterService.class);
+        }
+
+        @Bean
+        public CustomerFromCustomerDtoUpdater customerFromCustomerDtoUpdater() {
+            return Mockito.mock(CustomerFromCustomerDtoUpdater.class);
+        }
+
+        @Bean
+        public KafkaPaymentOrderProducerService kafkaPaymentOrderProducerService() {
+            return Mockito.mock(KafkaPaymentOrderProducerService.class);
+        }
+
+        @Bean
+        public OrderPreValidator orderPreValidator() {
+            return Mockito.mock(OrderPreValidator.class);
+        }
+
+        @Bean
+        public AuditJournal auditJournal() {
+            return Mockito.mock(AuditJournal.class);
+        }
+
+        @Bean
+        public MissingCustomerCache missingCustomerCache() {
+            return Mockito.mock(MissingCustomerCache.class);
+        }
+    }
+}
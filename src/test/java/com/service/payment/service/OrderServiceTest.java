@@ -2,16 +2,35 @@ package com.service.payment.service;
 
 import com.service.avro.model.AvroOrder;
 import com.service.payment.converter.ConverterService;
+import com.service.payment.dao.DataAccessFailures;
+import com.service.payment.dao.SavepointExecutor;
+import com.service.payment.exception.EntityNotFoundException;
+import com.service.payment.exception.InsufficientAvailableBalanceException;
+import com.service.payment.exception.OrderRecordFailedException;
 import com.service.payment.exception.ServiceException;
+import com.service.payment.exception.TransientServiceException;
 import com.service.payment.model.Order;
 import com.service.payment.model.OrderStatus;
+import com.service.payment.model.RejectionReason;
+import com.service.payment.validation.OrderPreValidator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,9 +49,27 @@ public class OrderServiceTest {
     @Mock
     private ConverterService converterService;
 
+    @Mock
+    private OrderPreValidator orderPreValidator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SavepointExecutor savepointExecutor;
+
     @BeforeEach
     public void setUp(){
-        this.orderService = new OrderService(customerService, kafkaPaymentOrderProducerService, converterService);
+        RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(3).noBackoff()
+                .retryOn(DataAccessFailures.TRANSIENT_TYPES).traversingCauses().build();
+        this.orderService =
+                new OrderService(customerService, kafkaPaymentOrderProducerService, converterService, retryTemplate,
+                        orderPreValidator, new TransactionTemplate(transactionManager), savepointExecutor);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(savepointExecutor).run(any());
     }
 
     @ParameterizedTest
@@ -67,7 +104,7 @@ public class OrderServiceTest {
 
         verify(converterService).convert(avroOrder, Order.class);
         verify(customerService).createReservation(order);
-        verify(kafkaPaymentOrderProducerService).sendOrder(order);
+        verify(kafkaPaymentOrderProducerService).sendOrder(order, null);
     }
 
     @Test
@@ -83,7 +120,7 @@ public class OrderServiceTest {
 
         verify(converterService).convert(avroOrder, Order.class);
         verify(customerService).createReservation(order);
-        verify(kafkaPaymentOrderProducerService).sendOrder(order);
+        verify(kafkaPaymentOrderProducerService).sendOrder(order, null);
     }
 
     @Test
@@ -133,5 +170,319 @@ public class OrderServiceTest {
         verifyNoInteractions(kafkaPaymentOrderProducerService);
     }
 
+    @Test
+    public void processNewOrder_whenBusinessRuleFails_rejectWithoutRetry(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setStatus(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(new InsufficientAvailableBalanceException(1L, UUID.randomUUID())).when(customerService)
+                .createReservation(order);
+
+        assertDoesNotThrow(() -> orderService.processNewOrder(avroOrder));
+        assertEquals(OrderStatus.REJECT, order.getStatus());
+        assertEquals(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, order.getRejectionReason());
+
+        verify(customerService, times(1)).createReservation(order);
+        verify(kafkaPaymentOrderProducerService).sendOrder(order, null);
+    }
+
+    @Test
+    public void processNewOrder_whenTransientFailureClears_retryAndAccept(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setStatus(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(TransientServiceException.class).doNothing().when(customerService).createReservation(order);
+
+        assertDoesNotThrow(() -> orderService.processNewOrder(avroOrder));
+        assertEquals(OrderStatus.ACCEPT, order.getStatus());
+
+        verify(customerService, times(2)).createReservation(order);
+        verify(kafkaPaymentOrderProducerService).sendOrder(order, null);
+    }
+
+    @Test
+    public void processNewOrder_whenTransientFailurePersists_throwTransientServiceExceptionAndDoNotReject(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setStatus(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(TransientServiceException.class).when(customerService).createReservation(order);
+
+        assertThrows(TransientServiceException.class, () -> orderService.processNewOrder(avroOrder));
+        assertEquals(OrderStatus.NEW, order.getStatus());
+
+        verify(customerService, times(3)).createReservation(order);
+        verifyNoInteractions(kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processNewOrder_whenCommitFailsWithTransientDataAccessException_throwTransientServiceException(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setStatus(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(new QueryTimeoutException("timeout")).when(customerService).createReservation(order);
+
+        assertThrows(TransientServiceException.class, () -> orderService.processNewOrder(avroOrder));
+
+        verify(customerService, times(3)).createReservation(order);
+        verifyNoInteractions(kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processRollbackOrder_whenTransientFailurePersists_throwTransientServiceException(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(TransientServiceException.class).when(customerService).rollbackReservation(order);
+
+        assertThrows(TransientServiceException.class, () -> orderService.processRollbackOrder(avroOrder));
+
+        verify(customerService, times(3)).rollbackReservation(order);
+    }
+
+    @Test
+    public void processNewOrder_whenCustomerIsMissing_rejectWithCustomerNotFound(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setStatus(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(new EntityNotFoundException("missing")).when(customerService).createReservation(order);
+
+        assertDoesNotThrow(() -> orderService.processNewOrder(avroOrder));
+        assertEquals(OrderStatus.REJECT, order.getStatus());
+        assertEquals(RejectionReason.CUSTOMER_NOT_FOUND, order.getRejectionReason());
+    }
+
+    @Test
+    public void processNewOrder_whenUnexpectedServiceException_rejectWithProcessingError(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setStatus(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(new ServiceException("DAO operation failed")).when(customerService).createReservation(order);
+
+        assertDoesNotThrow(() -> orderService.processNewOrder(avroOrder));
+        assertEquals(RejectionReason.PROCESSING_ERROR, order.getRejectionReason());
+    }
+
+    @Test
+    public void processNewOrder_whenOrderIsMalformed_rejectWithoutTouchingCustomers(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+
+        when(orderPreValidator.findProblem(avroOrder)).thenReturn("Product cannot be null");
+        when(orderPreValidator.hasValidId(avroOrder)).thenReturn(true);
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+
+        orderService.processNewOrder(avroOrder);
+
+        assertEquals(OrderStatus.REJECT, order.getStatus());
+        assertEquals(RejectionReason.MALFORMED_ORDER, order.getRejectionReason());
+        verify(kafkaPaymentOrderProducerService).sendOrder(order, null);
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void rejectExpired_whenOrderIsWellFormed_rejectAsExpiredWithoutTouchingCustomers(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = order(OrderStatus.NEW);
+        byte[] rawValue = {1};
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+
+        orderService.rejectExpired(avroOrder, rawValue);
+
+        assertEquals(OrderStatus.REJECT, order.getStatus());
+        assertEquals(RejectionReason.EXPIRED, order.getRejectionReason());
+        verify(kafkaPaymentOrderProducerService).sendOrder(order, rawValue);
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    public void processNewOrder_whenOrderIdIsInvalid_dropWithoutReply(){
+        AvroOrder avroOrder = new AvroOrder();
+
+        when(orderPreValidator.findProblem(avroOrder)).thenReturn("Order id must be a UUID");
+
+        orderService.processNewOrder(avroOrder);
+
+        verifyNoInteractions(customerService, converterService, kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processConfirmationOrder_whenOrderIsMalformed_skip(){
+        AvroOrder avroOrder = new AvroOrder();
+
+        when(orderPreValidator.findProblem(avroOrder)).thenReturn("Customer id cannot be null");
+
+        orderService.processConfirmationOrder(avroOrder);
+        orderService.processRollbackOrder(avroOrder);
+
+        verifyNoInteractions(customerService, converterService, kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processCoalesced_whenSomeMovementsFail_answerEachNewOrder(){
+        AvroOrder acceptedAvroOrder = new AvroOrder();
+        acceptedAvroOrder.setId("accepted");
+        AvroOrder rejectedAvroOrder = new AvroOrder();
+        rejectedAvroOrder.setId("rejected");
+        AvroOrder confirmationAvroOrder = new AvroOrder();
+        confirmationAvroOrder.setId("confirmation");
+        Order acceptedOrder = order(OrderStatus.NEW);
+        Order rejectedOrder = order(OrderStatus.NEW);
+        Order confirmationOrder = order(OrderStatus.CONFIRMATION);
+        byte[] rawValue = {1};
+
+        when(converterService.convert(acceptedAvroOrder, Order.class)).thenReturn(acceptedOrder);
+        when(converterService.convert(rejectedAvroOrder, Order.class)).thenReturn(rejectedOrder);
+        when(converterService.convert(confirmationAvroOrder, Order.class)).thenReturn(confirmationOrder);
+        when(customerService.applyMovements(List.of(acceptedOrder, rejectedOrder, confirmationOrder))).thenReturn(
+                Arrays.asList(null, new InsufficientAvailableBalanceException(1L, rejectedOrder.getId()), null));
+
+        orderService.processCoalesced(List.of(orderRecord(acceptedAvroOrder, rawValue),
+                orderRecord(rejectedAvroOrder, null), orderRecord(confirmationAvroOrder, null)));
+
+        assertEquals(OrderStatus.ACCEPT, acceptedOrder.getStatus());
+        assertEquals(OrderStatus.REJECT, rejectedOrder.getStatus());
+        assertEquals(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, rejectedOrder.getRejectionReason());
+        verify(customerService, times(1)).applyMovements(any());
+        verify(kafkaPaymentOrderProducerService).sendOrder(acceptedOrder, rawValue);
+        verify(kafkaPaymentOrderProducerService).sendOrder(rejectedOrder, null);
+        verifyNoMoreInteractions(kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processCoalesced_whenAnswerFails_failNamingThatOrder(){
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId("accepted");
+        Order order = order(OrderStatus.NEW);
+        OrderRecord record = orderRecord(avroOrder, null);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        when(customerService.applyMovements(List.of(order))).thenReturn(Arrays.asList((ServiceException) null));
+        doThrow(new ServiceException("Error sending order to Kafka")).when(kafkaPaymentOrderProducerService)
+                .sendOrder(order, null);
+
+        OrderRecordFailedException e =
+                assertThrows(OrderRecordFailedException.class, () -> orderService.processCoalesced(List.of(record)));
+
+        assertSame(record.consumerRecord(), e.getFailedRecord());
+    }
+
+    @Test
+    public void processCoalesced_whenTransientFailurePersists_throwTransientServiceExceptionWithoutAnswers(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = order(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        when(customerService.applyMovements(any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(TransientServiceException.class,
+                () -> orderService.processCoalesced(List.of(orderRecord(avroOrder, null))));
+
+        verify(customerService, times(3)).applyMovements(any());
+        verifyNoInteractions(kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processGroupCommit_whenOneOrderFails_commitOnceAndAnswerAfterCommit(){
+        AvroOrder acceptedAvroOrder = new AvroOrder();
+        acceptedAvroOrder.setId("accepted");
+        AvroOrder rejectedAvroOrder = new AvroOrder();
+        rejectedAvroOrder.setId("rejected");
+        AvroOrder rollbackAvroOrder = new AvroOrder();
+        rollbackAvroOrder.setId("rollback");
+        Order acceptedOrder = order(OrderStatus.NEW);
+        Order rejectedOrder = order(OrderStatus.NEW);
+        Order rollbackOrder = order(OrderStatus.ROLLBACK);
+        byte[] rawValue = {1};
+
+        when(converterService.convert(acceptedAvroOrder, Order.class)).thenReturn(acceptedOrder);
+        when(converterService.convert(rejectedAvroOrder, Order.class)).thenReturn(rejectedOrder);
+        when(converterService.convert(rollbackAvroOrder, Order.class)).thenReturn(rollbackOrder);
+        doThrow(new InsufficientAvailableBalanceException(1L, rejectedOrder.getId())).when(customerService)
+                .applyMovementInTransaction(rejectedOrder);
+
+        orderService.processGroupCommit(List.of(orderRecord(acceptedAvroOrder, rawValue),
+                orderRecord(rejectedAvroOrder, null), orderRecord(rollbackAvroOrder, null)));
+
+        assertEquals(OrderStatus.ACCEPT, acceptedOrder.getStatus());
+        assertEquals(OrderStatus.REJECT, rejectedOrder.getStatus());
+        assertEquals(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, rejectedOrder.getRejectionReason());
+        verify(savepointExecutor, times(3)).run(any());
+        verify(customerService).applyMovementInTransaction(rollbackOrder);
+        InOrder inOrder = inOrder(transactionManager, kafkaPaymentOrderProducerService);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(kafkaPaymentOrderProducerService).sendOrder(acceptedOrder, rawValue);
+        inOrder.verify(kafkaPaymentOrderProducerService).sendOrder(rejectedOrder, null);
+        verifyNoMoreInteractions(kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processGroupCommit_whenOrderLeavesTransactionRollbackOnly_failNamingThatOrder(){
+        SimpleTransactionStatus transactionStatus = new SimpleTransactionStatus();
+        AvroOrder acceptedAvroOrder = new AvroOrder();
+        acceptedAvroOrder.setId("accepted");
+        AvroOrder failingAvroOrder = new AvroOrder();
+        failingAvroOrder.setId("failing");
+        Order acceptedOrder = order(OrderStatus.NEW);
+        Order failingOrder = order(OrderStatus.NEW);
+        OrderRecord failingRecord = orderRecord(failingAvroOrder, null);
+
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(converterService.convert(acceptedAvroOrder, Order.class)).thenReturn(acceptedOrder);
+        when(converterService.convert(failingAvroOrder, Order.class)).thenReturn(failingOrder);
+        doAnswer(invocation -> {
+            transactionStatus.setRollbackOnly();
+            throw new ServiceException("DAO operation failed");
+        }).when(customerService).applyMovementInTransaction(failingOrder);
+
+        OrderRecordFailedException e = assertThrows(OrderRecordFailedException.class,
+                () -> orderService.processGroupCommit(List.of(orderRecord(acceptedAvroOrder, null), failingRecord)));
+
+        assertSame(failingRecord.consumerRecord(), e.getFailedRecord());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(kafkaPaymentOrderProducerService);
+    }
+
+    @Test
+    public void processGroupCommit_whenTransientFailurePersists_rollbackBatchWithoutAnswers(){
+        AvroOrder avroOrder = new AvroOrder();
+        Order order = order(OrderStatus.NEW);
+
+        when(converterService.convert(avroOrder, Order.class)).thenReturn(order);
+        doThrow(new TransientServiceException("DAO operation failed", new QueryTimeoutException("timeout")))
+                .when(customerService).applyMovementInTransaction(order);
+
+        assertThrows(TransientServiceException.class,
+                () -> orderService.processGroupCommit(List.of(orderRecord(avroOrder, null))));
+
+        verify(customerService, times(3)).applyMovementInTransaction(order);
+        verify(transactionManager, times(3)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(kafkaPaymentOrderProducerService);
+    }
 
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setStatus(status);
+        return order;
+    }
+
+    private static OrderRecord orderRecord(AvroOrder avroOrder, byte[] rawValue) {
+        return new OrderRecord(avroOrder, rawValue, new ConsumerRecord<>("orders", 0, 0, null, avroOrder));
+    }
 }
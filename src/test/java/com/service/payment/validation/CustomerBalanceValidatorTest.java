@@ -6,12 +6,14 @@ import com.service.payment.exception.InsufficientReserveBalanceException;
 import com.service.payment.model.Order;
 import com.service.payment.model.OrderStatus;
 import com.service.payment.model.Product;
+import com.service.payment.model.RejectionReason;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CustomerBalanceValidatorTest {
@@ -158,5 +160,46 @@ public class CustomerBalanceValidatorTest {
                 () -> customerBalanceValidator.validateReservationConfirmation(customer, order));
     }
 
+    @Test
+    public void validateReservationCreation_whenInvalid_throwStacklessExceptionWithReason() {
+        Customer customer = new Customer(1L, "testName", 100L, 0L);
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setQuantity(1);
+        product.setPrice(500L);
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(customer.getId());
+        order.setProduct(product);
+
+        InsufficientAvailableBalanceException e = assertThrows(InsufficientAvailableBalanceException.class,
+                () -> customerBalanceValidator.validateReservationCreation(customer, order));
+
+        assertEquals(RejectionReason.INSUFFICIENT_AVAILABLE_BALANCE, e.getReason());
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("Customer with id = 1 has not enough money to pay for order with id = " + order.getId(),
+                e.getMessage());
+    }
 
+    @Test
+    public void validateReservationRollback_whenInvalid_throwExceptionWithReason() {
+        Customer customer = new Customer(1L, "testName", 100L, 0L);
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setQuantity(1);
+        product.setPrice(50L);
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setProduct(product);
+
+        InsufficientReserveBalanceException e = assertThrows(InsufficientReserveBalanceException.class,
+                () -> customerBalanceValidator.validateReservationRollback(customer, order));
+
+        assertEquals(RejectionReason.INSUFFICIENT_RESERVED_BALANCE, e.getReason());
+        assertEquals(0, e.getStackTrace().length);
+    }
 }
@@ -2,16 +2,25 @@ package com.service.payment.validation;
 
 import com.service.payment.entity.Customer;
 import com.service.payment.exception.EntityValidationException;
+import com.service.payment.exception.FieldViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(SpringExtension.class)
@@ -22,7 +31,7 @@ public class CustomerValidatorTest {
 
     @BeforeEach
     public void setUp() {
-        validator = new CustomerValidator(jakartaValidator);
+        validator = new CustomerValidator();
     }
 
     @Test
@@ -54,4 +63,37 @@ public class CustomerValidatorTest {
     public void validate_whenCustomerIsNull_throwIllegalArgumentException(Customer customer) {
         assertThrows(IllegalArgumentException.class, () -> validator.validate(customer));
     }
+
+    @ParameterizedTest
+    @MethodSource("invalidCustomers")
+    public void validate_whenCustomerIsInvalid_reportSameViolationsAsJakartaValidator(Customer customer) {
+        EntityValidationException e = assertThrows(EntityValidationException.class, () -> validator.validate(customer));
+
+        assertEquals("Customer is not valid", e.getMessage());
+        assertEquals(jakartaViolations(jakartaValidator, customer),
+                violations(e.getViolations()));
+    }
+
+    private static Stream<Customer> invalidCustomers() {
+        return Stream.of(
+                new Customer(1L, null, null, null),
+                new Customer(1L, "", 10L, 0L),
+                new Customer(1L, "   ", -1L, -2L),
+                new Customer(null, "testName", Long.MIN_VALUE, 0L));
+    }
+
+    private static Set<List<Object>> violations(Collection<FieldViolation> violations) {
+        return violations.stream()
+                .map(violation -> List.<Object>of(violation.getField(), violation.getObjectName(),
+                        String.valueOf(violation.getRejectedValue()), violation.getMessage()))
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<List<Object>> jakartaViolations(Validator validator, Object object) {
+        return validator.validate(object).stream()
+                .map(violation -> List.<Object>of(violation.getPropertyPath().toString(),
+                        violation.getRootBeanClass().getSimpleName(), String.valueOf(violation.getInvalidValue()),
+                        violation.getMessage()))
+                .collect(Collectors.toSet());
+    }
 }
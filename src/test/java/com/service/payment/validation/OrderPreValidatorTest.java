@@ -0,0 +1,95 @@
+package com.service.payment.validation;
+
+import com.service.avro.model.AvroOrder;
+import com.service.avro.model.AvroOrderStatus;
+import com.service.avro.model.AvroProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+public class OrderPreValidatorTest {
+
+    private OrderPreValidator validator;
+
+    @BeforeEach
+    public void setUp() {
+        validator = new OrderPreValidator();
+    }
+
+    @Test
+    public void findProblem_whenOrderIsWellFormed_returnNull() {
+        assertNull(validator.findProblem(avroOrder(UUID.randomUUID().toString(), 1L, 1, 100L)));
+    }
+
+    @Test
+    public void findProblem_whenIdIsNotAUuid_reportId() {
+        AvroOrder avroOrder = avroOrder("not-a-uuid", 1L, 1, 100L);
+
+        assertEquals("Order id must be a UUID", validator.findProblem(avroOrder));
+        assertFalse(validator.hasValidId(avroOrder));
+    }
+
+    @Test
+    public void findProblem_whenCustomerIdIsNull_reportCustomerId() {
+        assertEquals("Customer id cannot be null",
+                validator.findProblem(avroOrder(UUID.randomUUID().toString(), null, 1, 100L)));
+    }
+
+    @Test
+    public void findProblem_whenProductIsNull_reportProduct() {
+        AvroOrder avroOrder = avroOrder(UUID.randomUUID().toString(), 1L, 1, 100L);
+        avroOrder.setProduct(null);
+
+        assertEquals("Product cannot be null", validator.findProblem(avroOrder));
+    }
+
+    @Test
+    public void findProblem_whenQuantityIsZero_reportQuantity() {
+        assertEquals("Product quantity must be greater than 0",
+                validator.findProblem(avroOrder(UUID.randomUUID().toString(), 1L, 0, 100L)));
+    }
+
+    @Test
+    public void findProblem_whenPriceIsNegative_reportPrice() {
+        assertEquals("Price cannot be negative",
+                validator.findProblem(avroOrder(UUID.randomUUID().toString(), 1L, 1, -1L)));
+    }
+
+    @Test
+    public void findProblem_whenTotalPriceOverflows_reportOverflow() {
+        assertEquals("Total price overflows",
+                validator.findProblem(avroOrder(UUID.randomUUID().toString(), 1L, 2, Long.MAX_VALUE / 2 + 1)));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    public void findProblem_whenOrderIsNull_throwIllegalArgumentException(AvroOrder avroOrder) {
+        assertThrows(IllegalArgumentException.class, () -> validator.findProblem(avroOrder));
+    }
+
+    private static AvroOrder avroOrder(String id, Long customerId, int quantity, long price) {
+        AvroProduct product = new AvroProduct();
+        product.setId(1L);
+        product.setQuantity(quantity);
+        product.setPrice(price);
+
+        AvroOrder avroOrder = new AvroOrder();
+        avroOrder.setId(id);
+        avroOrder.setCustomerId(customerId);
+        avroOrder.setStatus(AvroOrderStatus.NEW);
+        avroOrder.setProduct(product);
+        return avroOrder;
+    }
+
+}